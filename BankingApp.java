@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.Scanner;
 
 public class BankingApp {
+    private static final long REPLICA_MAX_LAG_MILLIS = 5000;
+    
     private BankingService bankingService;
     private Scanner scanner;
     private boolean running;
@@ -16,6 +18,7 @@ public class BankingApp {
     
     public void start() {
         System.out.println("=== Welcome to Secure Banking System ===");
+        bankingService.getStandingOrderScheduler().start();
         
         while (running) {
             if (!bankingService.isUserLoggedIn()) {
@@ -25,6 +28,8 @@ public class BankingApp {
             }
         }
         
+        bankingService.getStandingOrderScheduler().stop();
+        bankingService.stopReplication();
         scanner.close();
         System.out.println("Thank you for using Secure Banking System!");
     }
@@ -34,6 +39,9 @@ public class BankingApp {
         System.out.println("1. Login");
         System.out.println("2. Register");
         System.out.println("3. Exit");
+        if (bankingService.isReadOnly()) {
+            System.out.println("4. Promote Replica to Primary");
+        }
         System.out.print("Choose an option: ");
         
         String choice = scanner.nextLine();
@@ -48,6 +56,14 @@ public class BankingApp {
             case "3":
                 running = false;
                 break;
+            case "4":
+                if (bankingService.isReadOnly()) {
+                    bankingService.promoteToPrimary();
+                    System.out.println("Replica promoted to primary.");
+                } else {
+                    System.out.println("Invalid option. Please try again.");
+                }
+                break;
             default:
                 System.out.println("Invalid option. Please try again.");
         }
@@ -277,7 +293,39 @@ public class BankingApp {
     }
     
     public static void main(String[] args) {
-        BankingApp app = new BankingApp();
+        BankingApp app;
+        try {
+            app = new BankingApp();
+        } catch (IllegalStateException e) {
+            System.out.println("Startup failed: " + e.getMessage());
+            return;
+        }
+        
+        try {
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                switch (args[i]) {
+                    case "--replication-port":
+                        app.bankingService.startReplicationPrimary(Integer.parseInt(args[i + 1]));
+                        break;
+                    case "--follow":
+                        String[] address = args[i + 1].split(":");
+                        app.bankingService.followPrimary(address[0], Integer.parseInt(address[1]), 
+                                REPLICA_MAX_LAG_MILLIS);
+                        System.out.println("Running as read-only replica of " + args[i + 1]);
+                        break;
+                    case "--grant-staff":
+                        app.bankingService.grantStaffRole(args[i + 1]);
+                        System.out.println("Granted staff role to " + args[i + 1]);
+                        break;
+                    default:
+                        System.out.println("Unknown option: " + args[i]);
+                }
+            }
+        } catch (BankingException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("Startup option failed: " + e.getMessage());
+            return;
+        }
+        
         app.start();
     }
 }
\ No newline at end of file
@@ -1,16 +1,49 @@
 package BankingApp;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class BankingService {
+    private static final int IDEMPOTENCY_CACHE_SIZE = 100_000;
+    private static final long IDEMPOTENCY_TTL_MILLIS = 24 * 60 * 60 * 1000L;
+    
     private Map<String, User> users;
     private Map<String, BankAccount> accounts;
     private List<Transaction> transactions;
+    private List<LocalDate> accrualRuns;
+    private Map<String, StandingOrder> standingOrders;
     private User currentUser;
+    private long lastIdSequence;
+    private final InterestAccrualEngine interestEngine = new InterestAccrualEngine();
+    private final VelocityGuard velocityGuard = new VelocityGuard();
+    private final IdempotencyCache<Transaction> idempotencyCache = 
+            new IdempotencyCache<>(IDEMPOTENCY_CACHE_SIZE, IDEMPOTENCY_TTL_MILLIS);
+    private final IdempotencyCache<StandingOrder> orderIdempotencyCache = 
+            new IdempotencyCache<>(IDEMPOTENCY_CACHE_SIZE, IDEMPOTENCY_TTL_MILLIS);
+    private final StandingOrderScheduler orderScheduler;
+    private final TransactionIndex transactionIndex = new TransactionIndex();
+    private final Map<String, User> journaledUsers = new LinkedHashMap<>();
+    private final Map<String, BankAccount> journaledAccounts = new LinkedHashMap<>();
+    private final Map<String, StandingOrder> journaledOrders = new LinkedHashMap<>();
+    private final List<LocalDate> journaledAccrualRuns = new ArrayList<>();
+    private int shippedTransactions;
+    private ReplicationPrimary replicationPrimary;
+    private ReplicationFollower replicationFollower;
+    private volatile boolean readOnly;
     
     public BankingService() {
+        try {
+            FileDataManager.lockDataDirectory();
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        this.orderScheduler = new StandingOrderScheduler(this);
         loadData();
     }
     
@@ -20,16 +53,64 @@ public class BankingService {
         this.accounts = FileDataManager.loadAccounts().stream()
                 .collect(Collectors.toMap(BankAccount::getAccountNumber, account -> account));
         this.transactions = FileDataManager.loadTransactions();
+        this.shippedTransactions = transactions.size();
+        indexTransactions(transactions);
+        transactionIndex.update(transactions);
+        this.accrualRuns = FileDataManager.loadAccrualRuns();
+        this.standingOrders = FileDataManager.loadStandingOrders().stream()
+                .collect(Collectors.toMap(StandingOrder::getOrderId, order -> order));
+        standingOrders.values().forEach(orderScheduler::schedule);
+        indexStandingOrders(standingOrders.values());
     }
     
     private void saveData() {
         FileDataManager.saveUsers(new ArrayList<>(users.values()));
         FileDataManager.saveAccounts(new ArrayList<>(accounts.values()));
         FileDataManager.saveTransactions(transactions);
+        FileDataManager.saveStandingOrders(new ArrayList<>(standingOrders.values()));
+        publishMutations();
+    }
+    
+    private void indexTransactions(List<Transaction> loaded) {
+        loaded.stream()
+                .filter(t -> t.getType() == Transaction.TransactionType.WITHDRAWAL)
+                .forEach(t -> velocityGuard.record(t.getAccountNumber(), toCents(t.getAmount()), 
+                        toEpochMillis(t.getTimestamp())));
+        loaded.stream()
+                .filter(t -> t.getIdempotencyKey() != null && accounts.containsKey(t.getAccountNumber()))
+                .forEach(t -> idempotencyCache.put(
+                        idempotencyScope(accounts.get(t.getAccountNumber()).getUsername(), t.getIdempotencyKey()), 
+                        t, toEpochMillis(t.getTimestamp())));
     }
     
-    public boolean registerUser(String username, String password, String firstName, 
+    private void indexStandingOrders(Collection<StandingOrder> loaded) {
+        loaded.stream()
+                .filter(order -> order.getIdempotencyKey() != null)
+                .forEach(order -> orderIdempotencyCache.put(
+                        idempotencyScope(order.getUsername(), order.getIdempotencyKey()), 
+                        order, toEpochMillis(order.getCreatedAt())));
+    }
+    
+    private void publishMutations() {
+        boolean changed = !journaledUsers.isEmpty() || !journaledAccounts.isEmpty() || !journaledOrders.isEmpty() 
+                || !journaledAccrualRuns.isEmpty() || shippedTransactions < transactions.size();
+        if (replicationPrimary != null && changed) {
+            replicationPrimary.publish(new ReplicationBatch(replicationPrimary.nextSequence(), false, 
+                    new ArrayList<>(journaledUsers.values()), new ArrayList<>(journaledAccounts.values()), 
+                    new ArrayList<>(transactions.subList(shippedTransactions, transactions.size())), 
+                    new ArrayList<>(journaledOrders.values()), new ArrayList<>(journaledAccrualRuns)));
+        }
+        
+        journaledUsers.clear();
+        journaledAccounts.clear();
+        journaledOrders.clear();
+        journaledAccrualRuns.clear();
+        shippedTransactions = transactions.size();
+    }
+    
+    public synchronized boolean registerUser(String username, String password, String firstName, 
                                String lastName, String email) throws BankingException {
+        ensureWritable();
         
         if (!DataValidator.isValidUsername(username)) {
             throw new BankingException("Invalid username format");
@@ -53,12 +134,13 @@ public class BankingService {
         
         User user = new User(username, passwordHash, salt, firstName, lastName, email);
         users.put(username, user);
+        journaledUsers.put(username, user);
         saveData();
         
         return true;
     }
     
-    public boolean login(String username, String password) throws BankingException {
+    public synchronized boolean login(String username, String password) throws BankingException {
         User user = users.get(username);
         if (user == null || !user.isActive()) {
             throw new BankingException("Invalid username or password");
@@ -76,7 +158,8 @@ public class BankingService {
         currentUser = null;
     }
     
-    public BankAccount createAccount(BankAccount.AccountType accountType) throws BankingException {
+    public synchronized BankAccount createAccount(BankAccount.AccountType accountType) throws BankingException {
+        ensureWritable();
         if (currentUser == null) {
             throw new BankingException("User not logged in");
         }
@@ -84,55 +167,437 @@ public class BankingService {
         String accountNumber = generateAccountNumber();
         BankAccount account = new BankAccount(accountNumber, currentUser.getUsername(), accountType);
         accounts.put(accountNumber, account);
+        journaledAccounts.put(accountNumber, account);
         saveData();
         
         return account;
     }
     
-    public BigDecimal getAccountBalance(String accountNumber) throws BankingException {
+    public synchronized BigDecimal getAccountBalance(String accountNumber) throws BankingException {
+        ensureFresh();
         BankAccount account = getAccountForCurrentUser(accountNumber);
         return account.getBalance();
     }
     
-    public void deposit(String accountNumber, BigDecimal amount, String description) throws BankingException {
+    public Transaction deposit(String accountNumber, BigDecimal amount, String description) throws BankingException {
+        return deposit(accountNumber, amount, description, null);
+    }
+    
+    public synchronized Transaction deposit(String accountNumber, BigDecimal amount, String description, 
+                                            String idempotencyKey) throws BankingException {
+        ensureWritable();
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new BankingException("Deposit amount must be positive");
         }
         
         BankAccount account = getAccountForCurrentUser(accountNumber);
-        BigDecimal newBalance = account.getBalance().add(amount);
-        account.setBalance(newBalance);
-        
-        String transactionId = generateTransactionId();
-        Transaction transaction = new Transaction(transactionId, accountNumber, 
-                Transaction.TransactionType.DEPOSIT, amount, newBalance, description);
-        transactions.add(transaction);
+        Transaction original = findIdempotentResult(idempotencyKey, accountNumber, 
+                Transaction.TransactionType.DEPOSIT, amount);
+        if (original != null) {
+            return original;
+        }
         
+        Transaction transaction = postDeposit(account, amount, description, idempotencyKey);
         saveData();
+        rememberIdempotentResult(transaction);
+        
+        return transaction;
+    }
+    
+    public Transaction withdraw(String accountNumber, BigDecimal amount, String description) throws BankingException {
+        return withdraw(accountNumber, amount, description, null);
     }
     
-    public void withdraw(String accountNumber, BigDecimal amount, String description) throws BankingException {
+    public synchronized Transaction withdraw(String accountNumber, BigDecimal amount, String description, 
+                                             String idempotencyKey) throws BankingException {
+        ensureWritable();
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new BankingException("Withdrawal amount must be positive");
         }
         
         BankAccount account = getAccountForCurrentUser(accountNumber);
+        Transaction original = findIdempotentResult(idempotencyKey, accountNumber, 
+                Transaction.TransactionType.WITHDRAWAL, amount);
+        if (original != null) {
+            return original;
+        }
+        
+        Transaction transaction = postWithdrawal(account, amount, description, idempotencyKey);
+        saveData();
+        rememberIdempotentResult(transaction);
+        
+        return transaction;
+    }
+    
+    private Transaction findIdempotentResult(String idempotencyKey, String accountNumber, 
+                                             Transaction.TransactionType type, BigDecimal amount) 
+            throws BankingException {
+        if (idempotencyKey == null) {
+            return null;
+        }
+        if (!DataValidator.isValidIdempotencyKey(idempotencyKey)) {
+            throw new BankingException("Invalid idempotency key");
+        }
+        
+        Transaction original = idempotencyCache.get(idempotencyScope(currentUser.getUsername(), idempotencyKey));
+        if (original == null) {
+            return null;
+        }
+        if (!original.getAccountNumber().equals(accountNumber) || original.getType() != type 
+                || original.getAmount().compareTo(amount) != 0) {
+            throw new BankingException("Idempotency key was already used for a different request");
+        }
+        return original;
+    }
+    
+    private void rememberIdempotentResult(Transaction transaction) {
+        if (transaction.getIdempotencyKey() != null) {
+            idempotencyCache.put(idempotencyScope(currentUser.getUsername(), transaction.getIdempotencyKey()), 
+                    transaction);
+        }
+    }
+    
+    private static String idempotencyScope(String username, String idempotencyKey) {
+        return username + ':' + idempotencyKey;
+    }
+    
+    private Transaction postDeposit(BankAccount account, BigDecimal amount, String description) {
+        return postDeposit(account, amount, description, null);
+    }
+    
+    private Transaction postDeposit(BankAccount account, BigDecimal amount, String description, 
+                                    String idempotencyKey) {
+        BigDecimal newBalance = account.getBalance().add(amount);
+        account.setBalance(newBalance);
+        journaledAccounts.put(account.getAccountNumber(), account);
+        
+        Transaction transaction = new Transaction(generateTransactionId(), account.getAccountNumber(), 
+                Transaction.TransactionType.DEPOSIT, amount, newBalance, description, idempotencyKey);
+        transactions.add(transaction);
+        return transaction;
+    }
+    
+    private Transaction postWithdrawal(BankAccount account, BigDecimal amount, String description) 
+            throws BankingException {
+        return postWithdrawal(account, amount, description, null);
+    }
+    
+    private Transaction postWithdrawal(BankAccount account, BigDecimal amount, String description, 
+                                       String idempotencyKey) throws BankingException {
         if (account.getBalance().compareTo(amount) < 0) {
             throw new BankingException("Insufficient funds");
         }
         
+        long amountCents = toCents(amount);
+        long now = System.currentTimeMillis();
+        VelocityGuard.Verdict verdict = velocityGuard.check(account.getAccountNumber(), amountCents, now);
+        if (verdict.isDenied()) {
+            throw new BankingException("Withdrawal limit exceeded");
+        }
+        if (verdict == VelocityGuard.Verdict.FLAGGED) {
+            System.err.println("Unusual withdrawal flagged on account " + account.getAccountNumber() + ": " + amount);
+        }
+        
         BigDecimal newBalance = account.getBalance().subtract(amount);
         account.setBalance(newBalance);
+        journaledAccounts.put(account.getAccountNumber(), account);
+        velocityGuard.record(account.getAccountNumber(), amountCents, now);
         
-        String transactionId = generateTransactionId();
-        Transaction transaction = new Transaction(transactionId, accountNumber, 
-                Transaction.TransactionType.WITHDRAWAL, amount, newBalance, description);
+        Transaction transaction = new Transaction(generateTransactionId(), account.getAccountNumber(), 
+                Transaction.TransactionType.WITHDRAWAL, amount, newBalance, description, idempotencyKey);
         transactions.add(transaction);
+        return transaction;
+    }
+    
+    private void postTransfer(BankAccount source, BankAccount target, BigDecimal amount, String description) 
+            throws BankingException {
+        if (source.getBalance().compareTo(amount) < 0) {
+            throw new BankingException("Insufficient funds");
+        }
+        
+        BigDecimal sourceBalance = source.getBalance().subtract(amount);
+        source.setBalance(sourceBalance);
+        journaledAccounts.put(source.getAccountNumber(), source);
+        transactions.add(new Transaction(generateTransactionId(), source.getAccountNumber(), 
+                Transaction.TransactionType.TRANSFER, amount, sourceBalance, description));
         
+        BigDecimal targetBalance = target.getBalance().add(amount);
+        target.setBalance(targetBalance);
+        journaledAccounts.put(target.getAccountNumber(), target);
+        transactions.add(new Transaction(generateTransactionId(), target.getAccountNumber(), 
+                Transaction.TransactionType.TRANSFER, amount, targetBalance, description));
+    }
+    
+    public StandingOrder createStandingOrder(StandingOrder.OrderType orderType, String accountNumber, 
+                                             String targetAccount, BigDecimal amount, String description,
+                                             LocalDateTime firstExecution, Duration interval) 
+            throws BankingException {
+        return createStandingOrder(orderType, accountNumber, targetAccount, amount, description, 
+                firstExecution, interval, null);
+    }
+    
+    public synchronized StandingOrder createStandingOrder(StandingOrder.OrderType orderType, String accountNumber, 
+                                                          String targetAccount, BigDecimal amount, String description,
+                                                          LocalDateTime firstExecution, Duration interval, 
+                                                          String idempotencyKey) throws BankingException {
+        ensureWritable();
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new BankingException("Order amount must be positive");
+        }
+        if (firstExecution == null) {
+            throw new BankingException("First execution time is required");
+        }
+        if (interval != null && (interval.isZero() || interval.isNegative())) {
+            throw new BankingException("Order interval must be positive");
+        }
+        
+        getAccountForCurrentUser(accountNumber);
+        if (orderType == StandingOrder.OrderType.TRANSFER) {
+            if (accountNumber.equals(targetAccount)) {
+                throw new BankingException("Cannot transfer to the same account");
+            }
+            getAccountForCurrentUser(targetAccount);
+        } else {
+            targetAccount = null;
+        }
+        
+        StandingOrder original = findIdempotentOrder(idempotencyKey, orderType, accountNumber, targetAccount, amount);
+        if (original != null) {
+            return original;
+        }
+        
+        StandingOrder order = new StandingOrder(generateOrderId(), currentUser.getUsername(), orderType, 
+                accountNumber, targetAccount, amount, description, firstExecution, interval, idempotencyKey);
+        standingOrders.put(order.getOrderId(), order);
+        journaledOrders.put(order.getOrderId(), order);
         saveData();
+        orderScheduler.schedule(order);
+        if (idempotencyKey != null) {
+            orderIdempotencyCache.put(idempotencyScope(currentUser.getUsername(), idempotencyKey), order);
+        }
+        
+        return order;
     }
     
-    public List<BankAccount> getUserAccounts() {
+    private StandingOrder findIdempotentOrder(String idempotencyKey, StandingOrder.OrderType orderType, 
+                                              String accountNumber, String targetAccount, BigDecimal amount) 
+            throws BankingException {
+        if (idempotencyKey == null) {
+            return null;
+        }
+        if (!DataValidator.isValidIdempotencyKey(idempotencyKey)) {
+            throw new BankingException("Invalid idempotency key");
+        }
+        
+        StandingOrder original = orderIdempotencyCache.get(idempotencyScope(currentUser.getUsername(), idempotencyKey));
+        if (original == null) {
+            return null;
+        }
+        if (original.getOrderType() != orderType || !original.getAccountNumber().equals(accountNumber) 
+                || !Objects.equals(original.getTargetAccount(), targetAccount) 
+                || original.getAmount().compareTo(amount) != 0) {
+            throw new BankingException("Idempotency key was already used for a different request");
+        }
+        return original;
+    }
+    
+    public synchronized void cancelStandingOrder(String orderId) throws BankingException {
+        ensureWritable();
+        if (currentUser == null) {
+            throw new BankingException("User not logged in");
+        }
+        
+        StandingOrder order = standingOrders.get(orderId);
+        if (order == null || !order.getUsername().equals(currentUser.getUsername())) {
+            throw new BankingException("Standing order not found");
+        }
+        
+        order.cancel();
+        orderScheduler.cancel(orderId);
+        journaledOrders.put(orderId, order);
+        saveData();
+    }
+    
+    public synchronized List<StandingOrder> getUserStandingOrders() {
+        if (currentUser == null) return new ArrayList<>();
+        
+        return standingOrders.values().stream()
+                .filter(order -> order.getUsername().equals(currentUser.getUsername()))
+                .sorted(Comparator.comparing(StandingOrder::getNextExecution))
+                .collect(Collectors.toList());
+    }
+    
+    synchronized List<StandingOrder> executeStandingOrders(List<StandingOrder> dueOrders, LocalDateTime now) {
+        List<StandingOrder> rescheduled = new ArrayList<>();
+        if (readOnly) {
+            // Replicas leave execution to the primary; orders are re-armed on promotion
+            return rescheduled;
+        }
+        
+        for (StandingOrder order : dueOrders) {
+            if (!order.isActive()) {
+                continue;
+            }
+            journaledOrders.put(order.getOrderId(), order);
+            
+            BankAccount account = getAccountForOrder(order, order.getAccountNumber());
+            BankAccount target = order.getOrderType() == StandingOrder.OrderType.TRANSFER 
+                    ? getAccountForOrder(order, order.getTargetAccount()) : account;
+            if (account == null || target == null) {
+                order.fail("Account not found");
+                continue;
+            }
+            
+            try {
+                switch (order.getOrderType()) {
+                    case DEPOSIT:
+                        postDeposit(account, order.getAmount(), order.getDescription());
+                        break;
+                    case WITHDRAWAL:
+                        postWithdrawal(account, order.getAmount(), order.getDescription());
+                        break;
+                    case TRANSFER:
+                        postTransfer(account, target, order.getAmount(), order.getDescription());
+                        break;
+                }
+                order.recordSuccess(now);
+            } catch (BankingException e) {
+                order.recordFailure(now, e.getMessage(), 
+                        StandingOrderScheduler.MAX_RETRIES, StandingOrderScheduler.RETRY_DELAY);
+            }
+            
+            if (order.isActive()) {
+                rescheduled.add(order);
+            }
+        }
+        
+        saveData();
+        return rescheduled;
+    }
+    
+    private BankAccount getAccountForOrder(StandingOrder order, String accountNumber) {
+        BankAccount account = accounts.get(accountNumber);
+        if (account == null || !account.isActive() || !account.getUsername().equals(order.getUsername())) {
+            return null;
+        }
+        return account;
+    }
+    
+    public VelocityGuard getVelocityGuard() {
+        return velocityGuard;
+    }
+    
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValue();
+    }
+    
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    public StandingOrderScheduler getStandingOrderScheduler() {
+        return orderScheduler;
+    }
+    
+    public synchronized InterestAccrualEngine.AccrualReport runInterestAccrual(LocalDate businessDate, BigDecimal annualRate) 
+            throws BankingException {
+        ensureWritable();
+        if (businessDate == null) {
+            throw new BankingException("Business date is required");
+        }
+        if (annualRate == null || annualRate.compareTo(BigDecimal.ZERO) < 0) {
+            throw new BankingException("Interest rate must not be negative");
+        }
+        if (accrualRuns.contains(businessDate)) {
+            return InterestAccrualEngine.AccrualReport.alreadyCompleted(businessDate);
+        }
+        
+        // Accrual commits are atomic, so a posted credit is always stored with its balance update
+        String idPrefix = InterestAccrualEngine.transactionIdPrefix(businessDate);
+        Set<String> postedIds = transactions.stream()
+                .map(Transaction::getTransactionId)
+                .filter(id -> id.startsWith(idPrefix))
+                .collect(Collectors.toSet());
+        
+        InterestAccrualEngine.AccrualReport report = interestEngine.accrue(
+                new ArrayList<>(accounts.values()), businessDate, annualRate, postedIds);
+        
+        String description = "Interest accrual for " + businessDate;
+        for (InterestAccrualEngine.InterestCredit credit : report.getCredits()) {
+            BankAccount account = accounts.get(credit.getAccountNumber());
+            BigDecimal newBalance = account.getBalance().add(credit.getAmount());
+            account.setBalance(newBalance);
+            journaledAccounts.put(account.getAccountNumber(), account);
+            transactions.add(new Transaction(credit.getTransactionId(), credit.getAccountNumber(), 
+                    Transaction.TransactionType.INTEREST, credit.getAmount(), newBalance, description));
+        }
+        accrualRuns.add(businessDate);
+        journaledAccrualRuns.add(businessDate);
+        
+        FileDataManager.saveAccrualRun(transactions, new ArrayList<>(accounts.values()), accrualRuns);
+        publishMutations();
+        
+        return report;
+    }
+    
+    public IntegrityVerifier.IntegrityReport verifyIntegrity() {
+        // Only the snapshot is taken under the service lock; the replay runs while postings continue
+        Map<String, BigDecimal> balances = new HashMap<>();
+        List<Transaction> history;
+        synchronized (this) {
+            accounts.values().forEach(account -> balances.put(account.getAccountNumber(), account.getBalance()));
+            history = new ArrayList<>(transactions);
+        }
+        return IntegrityVerifier.verify(balances, history);
+    }
+    
+    // Searches span every account, so they are limited to users holding the staff role
+    public synchronized List<Transaction> searchTransactions(TransactionQuery query) throws BankingException {
+        ensureFresh();
+        if (currentUser == null) {
+            throw new BankingException("User not logged in");
+        }
+        if (!currentUser.isStaff()) {
+            throw new BankingException("Access denied");
+        }
+        if (query == null) {
+            throw new BankingException("Search query is required");
+        }
+        if (query.getMinAmount() != null && query.getMaxAmount() != null 
+                && query.getMinAmount().compareTo(query.getMaxAmount()) > 0) {
+            throw new BankingException("Minimum amount must not exceed maximum amount");
+        }
+        if (query.getFrom() != null && query.getTo() != null && query.getFrom().isAfter(query.getTo())) {
+            throw new BankingException("Search start must not be after search end");
+        }
+        
+        transactionIndex.update(transactions);
+        return transactionIndex.search(query);
+    }
+    
+    // The staff role is stored on the user and only granted by the operator at startup, so claiming a
+    // username through registration never grants it
+    public synchronized void grantStaffRole(String username) throws BankingException {
+        ensureWritable();
+        User user = users.get(username);
+        if (user == null) {
+            throw new BankingException("Unknown user: " + username);
+        }
+        if (user.isStaff()) {
+            return;
+        }
+        
+        user.setStaff(true);
+        journaledUsers.put(username, user);
+        saveData();
+    }
+    
+    public InterestAccrualEngine getInterestAccrualEngine() {
+        return interestEngine;
+    }
+    
+    public synchronized List<BankAccount> getUserAccounts() throws BankingException {
+        ensureFresh();
         if (currentUser == null) return new ArrayList<>();
         
         return accounts.values().stream()
@@ -140,7 +605,8 @@ public class BankingService {
                 .collect(Collectors.toList());
     }
     
-    public List<Transaction> getAccountTransactions(String accountNumber) throws BankingException {
+    public synchronized List<Transaction> getAccountTransactions(String accountNumber) throws BankingException {
+        ensureFresh();
         getAccountForCurrentUser(accountNumber);
         
         return transactions.stream()
@@ -149,6 +615,137 @@ public class BankingService {
                 .collect(Collectors.toList());
     }
     
+    public synchronized void startReplicationPrimary(int port) throws BankingException {
+        ensureWritable();
+        if (replicationPrimary != null) {
+            return;
+        }
+        
+        ReplicationPrimary primary = new ReplicationPrimary(this, port, requireReplicationSecret());
+        try {
+            primary.start();
+        } catch (IOException e) {
+            throw new BankingException("Could not start replication on port " + port, e);
+        }
+        replicationPrimary = primary;
+    }
+    
+    public synchronized void followPrimary(String host, int port, long maxLagMillis) throws BankingException {
+        if (replicationPrimary != null) {
+            throw new BankingException("A primary cannot follow another primary");
+        }
+        if (replicationFollower != null) {
+            return;
+        }
+        
+        byte[] secret = requireReplicationSecret();
+        readOnly = true;
+        replicationFollower = new ReplicationFollower(this, host, port, maxLagMillis, secret);
+        replicationFollower.start();
+    }
+    
+    private static byte[] requireReplicationSecret() throws BankingException {
+        byte[] secret = ReplicationPrimary.loadSecret();
+        if (secret == null) {
+            throw new BankingException("Replication requires a shared secret of at least 16 characters in "
+                    + "-Dbanking.replication.secret or BANKING_REPLICATION_SECRET");
+        }
+        return secret;
+    }
+    
+    public void promoteToPrimary() {
+        ReplicationFollower follower;
+        synchronized (this) {
+            follower = replicationFollower;
+        }
+        // Stopped outside the lock so an in-flight batch can finish applying
+        if (follower != null) {
+            follower.stop();
+        }
+        
+        synchronized (this) {
+            replicationFollower = null;
+            readOnly = false;
+            shippedTransactions = transactions.size();
+            standingOrders.values().forEach(orderScheduler::schedule);
+        }
+    }
+    
+    public void stopReplication() {
+        ReplicationPrimary primary;
+        ReplicationFollower follower;
+        synchronized (this) {
+            primary = replicationPrimary;
+            follower = replicationFollower;
+            replicationPrimary = null;
+            replicationFollower = null;
+        }
+        if (primary != null) {
+            primary.stop();
+        }
+        if (follower != null) {
+            follower.stop();
+        }
+    }
+    
+    synchronized ReplicationBatch createReplicationSnapshot(long sequence) {
+        return new ReplicationBatch(sequence, true, new ArrayList<>(users.values()), 
+                new ArrayList<>(accounts.values()), new ArrayList<>(transactions), 
+                new ArrayList<>(standingOrders.values()), new ArrayList<>(accrualRuns));
+    }
+    
+    synchronized void applyReplicationBatch(ReplicationBatch batch) {
+        if (!readOnly) {
+            return;
+        }
+        
+        if (batch.isSnapshot()) {
+            users.clear();
+            accounts.clear();
+            transactions.clear();
+            standingOrders.clear();
+            accrualRuns.clear();
+            velocityGuard.reset();
+            transactionIndex.clear();
+        }
+        
+        batch.getUsers().forEach(user -> users.put(user.getUsername(), user));
+        batch.getAccounts().forEach(account -> accounts.put(account.getAccountNumber(), account));
+        batch.getStandingOrders().forEach(order -> standingOrders.put(order.getOrderId(), order));
+        indexStandingOrders(batch.getStandingOrders());
+        batch.getAccrualRuns().stream()
+                .filter(date -> !accrualRuns.contains(date))
+                .forEach(accrualRuns::add);
+        transactions.addAll(batch.getTransactions());
+        indexTransactions(batch.getTransactions());
+        shippedTransactions = transactions.size();
+    }
+    
+    synchronized void persistReplicatedState() {
+        saveData();
+        FileDataManager.saveAccrualRuns(accrualRuns);
+    }
+    
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+    
+    public synchronized long getReplicationLagMillis() {
+        return replicationFollower != null ? replicationFollower.getLagMillis() : 0;
+    }
+    
+    private void ensureWritable() throws BankingException {
+        if (readOnly) {
+            throw new BankingException("Service is read-only");
+        }
+    }
+    
+    private void ensureFresh() throws BankingException {
+        if (replicationFollower != null && !replicationFollower.isWithinLag()) {
+            throw new BankingException("Replica is behind the primary, please try again later");
+        }
+    }
+    
     private BankAccount getAccountForCurrentUser(String accountNumber) throws BankingException {
         BankAccount account = accounts.get(accountNumber);
         if (account == null || !account.isActive()) {
@@ -165,7 +762,17 @@ public class BankingService {
     }
     
     private String generateTransactionId() {
-        return "TXN" + System.currentTimeMillis();
+        return "TXN" + nextIdSequence();
+    }
+    
+    private String generateOrderId() {
+        return "ORD" + nextIdSequence();
+    }
+    
+    // Millisecond-based ids, bumped when several are issued within the same millisecond
+    private long nextIdSequence() {
+        lastIdSequence = Math.max(System.currentTimeMillis(), lastIdSequence + 1);
+        return lastIdSequence;
     }
     
     public User getCurrentUser() {
@@ -1,36 +1,31 @@
 package BankingApp;
 
-import java.util.regex.Pattern;
-
 public class DataValidator {
-    private static final Pattern USERNAME_PATTERN = Pattern.compile("^[a-zA-Z0-9_]{3,20}$");
-    private static final Pattern NAME_PATTERN = Pattern.compile("^[a-zA-Z\\s]{2,50}$");
-    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
-    private static final Pattern ACCOUNT_NUMBER_PATTERN = Pattern.compile("^ACC\\d{8}$");
-    private static final Pattern AMOUNT_PATTERN = Pattern.compile("^\\d+(\\.\\d{1,2})?$");
-    
     public static boolean isValidUsername(String username) {
-        return username != null && USERNAME_PATTERN.matcher(username).matches();
+        return InputSanitizer.Rule.USERNAME.matches(username);
     }
     
     public static boolean isValidName(String name) {
-        return name != null && NAME_PATTERN.matcher(name).matches();
+        return InputSanitizer.Rule.NAME.matches(name);
     }
     
     public static boolean isValidEmail(String email) {
-        return email != null && EMAIL_PATTERN.matcher(email).matches();
+        return InputSanitizer.Rule.EMAIL.matches(email);
     }
     
     public static boolean isValidAccountNumber(String accountNumber) {
-        return accountNumber != null && ACCOUNT_NUMBER_PATTERN.matcher(accountNumber).matches();
+        return InputSanitizer.Rule.ACCOUNT_NUMBER.matches(accountNumber);
     }
     
     public static boolean isValidAmount(String amount) {
-        return amount != null && AMOUNT_PATTERN.matcher(amount).matches();
+        return InputSanitizer.Rule.AMOUNT.matches(amount);
+    }
+    
+    public static boolean isValidIdempotencyKey(String key) {
+        return InputSanitizer.Rule.IDEMPOTENCY_KEY.matches(key);
     }
     
     public static String sanitizeInput(String input) {
-        if (input == null) return null;
-        return input.replaceAll("[<>\"']", "").trim();
+        return InputSanitizer.sanitize(input);
     }
 }
\ No newline at end of file
@@ -1,17 +1,63 @@
 package BankingApp;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.zip.CRC32C;
 
 public class FileDataManager {
-    private static final String USERS_FILE = "data/users.txt";
-    private static final String ACCOUNTS_FILE = "data/accounts.txt";
-    private static final String TRANSACTIONS_FILE = "data/transactions.txt";
+    static final String DATA_DIR = System.getProperty("banking.data.dir", "data");
+    static final String USERS_FILE = DATA_DIR + "/users.txt";
+    static final String ACCOUNTS_FILE = DATA_DIR + "/accounts.txt";
+    static final String TRANSACTIONS_FILE = DATA_DIR + "/transactions.txt";
+    static final String ACCRUALS_FILE = DATA_DIR + "/accruals.txt";
+    static final String ORDERS_FILE = DATA_DIR + "/orders.txt";
+    static final int CHECKSUM_SEGMENT_RECORDS = 1024;
+    private static final String CHECKSUM_SUFFIX = ".crc";
+    private static final String PENDING_SUFFIX = ".pending";
+    private static final String COMMIT_MARKER = DATA_DIR + "/commit.pending";
+    private static final String LOCK_FILE = DATA_DIR + "/.lock";
+    private static FileLock dataLock;
     
     static {
-        new File("data").mkdirs();
+        new File(DATA_DIR).mkdirs();
+    }
+    
+    // Held until the process exits so a second instance, such as a replica started without its own
+    // -Dbanking.data.dir, cannot rewrite the same files. An interrupted commit is only completed once
+    // the lock is held, since the process owning the directory may be writing that commit right now
+    static synchronized void lockDataDirectory() throws IOException {
+        if (dataLock != null) {
+            return;
+        }
+        
+        FileChannel channel = FileChannel.open(Paths.get(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IOException("Data directory " + new File(DATA_DIR).getAbsolutePath() 
+                    + " is in use by another process");
+        }
+        dataLock = lock;
+        recoverPendingCommit();
     }
     
     public static void saveUsers(List<User> users) {
@@ -44,16 +90,201 @@ public class FileDataManager {
                 .collect(Collectors.toList());
     }
     
-    private static void saveObjects(List<?> objects, String filename) {
+    public static void saveAccrualRuns(List<LocalDate> businessDates) {
+        saveObjects(businessDates, ACCRUALS_FILE);
+    }
+    
+    public static List<LocalDate> loadAccrualRuns() {
+        return loadObjects(ACCRUALS_FILE).stream()
+                .map(obj -> (LocalDate) obj)
+                .collect(Collectors.toList());
+    }
+    
+    // Transactions, balances and the completed date of an accrual run land together or not at all
+    public static void saveAccrualRun(List<Transaction> transactions, List<BankAccount> accounts, 
+                                      List<LocalDate> businessDates) {
+        Map<String, List<?>> files = new LinkedHashMap<>();
+        files.put(TRANSACTIONS_FILE, transactions);
+        files.put(ACCOUNTS_FILE, accounts);
+        files.put(ACCRUALS_FILE, businessDates);
+        saveAtomically(files);
+    }
+    
+    public static void saveStandingOrders(List<StandingOrder> orders) {
+        saveObjects(orders, ORDERS_FILE);
+    }
+    
+    public static List<StandingOrder> loadStandingOrders() {
+        return loadObjects(ORDERS_FILE).stream()
+                .map(obj -> (StandingOrder) obj)
+                .collect(Collectors.toList());
+    }
+    
+    // Every file is written beside its target first; once the commit marker naming them is on disk,
+    // the renames are replayed by recoverPendingCommit if the process dies before finishing them
+    private static void saveAtomically(Map<String, List<?>> files) {
+        for (Map.Entry<String, List<?>> file : files.entrySet()) {
+            if (!saveObjects(file.getValue(), file.getKey() + PENDING_SUFFIX)) {
+                return;
+            }
+        }
+        
+        try {
+            Path marker = Paths.get(COMMIT_MARKER);
+            Path markerPending = Paths.get(COMMIT_MARKER + PENDING_SUFFIX);
+            Files.write(markerPending, files.keySet(), StandardCharsets.UTF_8);
+            Files.move(markerPending, marker, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error writing commit marker: " + e.getMessage());
+            return;
+        }
+        recoverPendingCommit();
+    }
+    
+    // Files named by a commit marker that has not been completed yet, or an empty list when there is none
+    static List<String> pendingCommitFiles() throws IOException {
+        Path marker = Paths.get(COMMIT_MARKER);
+        if (!Files.exists(marker)) {
+            return new ArrayList<>();
+        }
+        return Files.readAllLines(marker, StandardCharsets.UTF_8);
+    }
+    
+    private static void recoverPendingCommit() {
+        Path marker = Paths.get(COMMIT_MARKER);
+        if (!Files.exists(marker)) {
+            return;
+        }
+        
+        try {
+            for (String filename : Files.readAllLines(marker, StandardCharsets.UTF_8)) {
+                promote(filename + PENDING_SUFFIX, filename);
+                promote(filename + PENDING_SUFFIX + CHECKSUM_SUFFIX, filename + CHECKSUM_SUFFIX);
+            }
+            Files.delete(marker);
+        } catch (IOException e) {
+            System.err.println("Error completing pending commit: " + e.getMessage());
+        }
+    }
+    
+    private static void promote(String pendingFile, String targetFile) throws IOException {
+        Path pending = Paths.get(pendingFile);
+        if (Files.exists(pending)) {
+            Files.move(pending, Paths.get(targetFile), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+    
+    private static boolean saveObjects(List<?> objects, String filename) {
+        List<Integer> checksums = new ArrayList<>();
+        CRC32C crc = new CRC32C();
+        int segmentRecords = 0;
+        
         try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(filename))) {
             for (Object obj : objects) {
-                oos.writeObject(DataEncryptor.encryptObject(obj));
+                byte[] encryptedData = DataEncryptor.encryptObject(obj);
+                oos.writeObject(encryptedData);
+                
+                crc.update(encryptedData);
+                if (++segmentRecords == CHECKSUM_SEGMENT_RECORDS) {
+                    checksums.add((int) crc.getValue());
+                    crc.reset();
+                    segmentRecords = 0;
+                }
+            }
+            if (segmentRecords > 0) {
+                checksums.add((int) crc.getValue());
             }
         } catch (IOException e) {
             System.err.println("Error saving data to " + filename + ": " + e.getMessage());
+            return false;
+        }
+        
+        return saveChecksums(filename, objects.size(), checksums);
+    }
+    
+    private static boolean saveChecksums(String filename, int recordCount, List<Integer> checksums) {
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(filename + CHECKSUM_SUFFIX)))) {
+            dos.writeInt(CHECKSUM_SEGMENT_RECORDS);
+            dos.writeInt(recordCount);
+            dos.writeInt(checksums.size());
+            for (int checksum : checksums) {
+                dos.writeInt(checksum);
+            }
+        } catch (IOException e) {
+            System.err.println("Error saving checksums for " + filename + ": " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+    
+    static SegmentChecksums loadChecksums(String filename) throws IOException {
+        File file = new File(filename + CHECKSUM_SUFFIX);
+        if (!file.exists()) {
+            return null;
+        }
+        
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int segmentRecords = dis.readInt();
+            int recordCount = dis.readInt();
+            int count = dis.readInt();
+            
+            // A header that does not cover every record would let segments go unchecked
+            if (segmentRecords != CHECKSUM_SEGMENT_RECORDS) {
+                throw new IOException("unexpected segment size " + segmentRecords);
+            }
+            if (recordCount < 0 || count != (recordCount + segmentRecords - 1) / segmentRecords) {
+                throw new IOException(count + " checksums cannot cover " + recordCount + " records");
+            }
+            
+            int[] checksums = new int[count];
+            for (int i = 0; i < checksums.length; i++) {
+                checksums[i] = dis.readInt();
+            }
+            return new SegmentChecksums(segmentRecords, recordCount, checksums);
+        } catch (EOFException e) {
+            throw new IOException("truncated checksum file", e);
         }
     }
     
+    // Unlike loadObjects, read errors are thrown so callers can report them instead of skipping.
+    // Records are handed over one checksum segment at a time so a whole file is never held at once.
+    static void readEncryptedSegments(String filename, SegmentConsumer consumer) throws IOException {
+        File file = new File(filename);
+        if (!file.exists()) {
+            return;
+        }
+        
+        try (ObjectInputStream ois = new ObjectInputStream(
+                new BufferedInputStream(new FileInputStream(file), 1 << 20))) {
+            List<byte[]> segment = new ArrayList<>(CHECKSUM_SEGMENT_RECORDS);
+            int segmentIndex = 0;
+            int recordIndex = 0;
+            while (true) {
+                try {
+                    // Unshared reads keep the stream's handle table from pinning every record already read
+                    segment.add((byte[]) ois.readUnshared());
+                } catch (EOFException e) {
+                    break;
+                } catch (ClassNotFoundException | ClassCastException e) {
+                    throw new IOException("Unexpected record " + recordIndex + " in " + filename, e);
+                }
+                recordIndex++;
+                if (segment.size() == CHECKSUM_SEGMENT_RECORDS) {
+                    consumer.accept(segmentIndex++, segment);
+                    segment = new ArrayList<>(CHECKSUM_SEGMENT_RECORDS);
+                }
+            }
+            if (!segment.isEmpty()) {
+                consumer.accept(segmentIndex, segment);
+            }
+        }
+    }
+    
+    interface SegmentConsumer {
+        void accept(int segment, List<byte[]> records) throws IOException;
+    }
+    
     private static List<Object> loadObjects(String filename) {
         List<Object> objects = new ArrayList<>();
         File file = new File(filename);
@@ -78,4 +309,20 @@ public class FileDataManager {
         
         return objects;
     }
+    
+    static class SegmentChecksums {
+        private final int segmentRecords;
+        private final int recordCount;
+        private final int[] checksums;
+        
+        SegmentChecksums(int segmentRecords, int recordCount, int[] checksums) {
+            this.segmentRecords = segmentRecords;
+            this.recordCount = recordCount;
+            this.checksums = checksums;
+        }
+        
+        int getSegmentRecords() { return segmentRecords; }
+        int getRecordCount() { return recordCount; }
+        int[] getChecksums() { return checksums; }
+    }
 }
\ No newline at end of file
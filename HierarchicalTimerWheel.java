@@ -0,0 +1,161 @@
+package BankingApp;
+
+import java.util.function.Consumer;
+
+public class HierarchicalTimerWheel<T> {
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final Timeout<T>[][] wheels;
+    private final Timeout<T> overdue;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public HierarchicalTimerWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        this.wheels = new Timeout[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheels[level][slot] = Timeout.sentinel();
+            }
+        }
+        this.overdue = Timeout.sentinel();
+    }
+
+    public Timeout<T> schedule(T value, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(value, Math.floorDiv(deadlineMillis, tickMillis));
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout == null || timeout.next == null) {
+            return false;
+        }
+        timeout.unlink();
+        size--;
+        return true;
+    }
+
+    public int advance(long nowMillis, Consumer<T> onExpired) {
+        int expired = drain(overdue, onExpired);
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+
+        while (currentTick <= targetTick) {
+            if (size == 0) {
+                currentTick = targetTick + 1;
+                break;
+            }
+
+            int index = (int) (currentTick & SLOT_MASK);
+            if (index == 0) {
+                cascade(1);
+            }
+            expired += drain(wheels[0][index], onExpired);
+            currentTick++;
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void cascade(int level) {
+        if (level >= LEVELS) {
+            return;
+        }
+        int index = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        if (index == 0) {
+            cascade(level + 1);
+        }
+
+        Timeout<T> head = wheels[level][index];
+        Timeout<T> node = head.next;
+        head.next = head;
+        head.prev = head;
+        while (node != head) {
+            Timeout<T> next = node.next;
+            place(node);
+            node = next;
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = timeout.tick - currentTick;
+        if (delta < 0) {
+            overdue.append(timeout);
+            return;
+        }
+
+        long tick = delta > MAX_DELTA ? currentTick + MAX_DELTA : timeout.tick;
+        delta = tick - currentTick;
+
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int index = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        wheels[level][index].append(timeout);
+    }
+
+    private int drain(Timeout<T> head, Consumer<T> onExpired) {
+        int expired = 0;
+        Timeout<T> node = head.next;
+        while (node != head) {
+            Timeout<T> next = node.next;
+            node.unlink();
+            size--;
+            expired++;
+            onExpired.accept(node.value);
+            node = next;
+        }
+        return expired;
+    }
+
+    public static final class Timeout<T> {
+        private final T value;
+        private final long tick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T value, long tick) {
+            this.value = value;
+            this.tick = tick;
+        }
+
+        private static <T> Timeout<T> sentinel() {
+            Timeout<T> head = new Timeout<>(null, Long.MIN_VALUE);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+
+        private void append(Timeout<T> node) {
+            node.prev = prev;
+            node.next = this;
+            prev.next = node;
+            prev = node;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+
+        public T getValue() { return value; }
+        public boolean isPending() { return next != null; }
+    }
+}
\ No newline at end of file
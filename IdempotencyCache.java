@@ -0,0 +1,174 @@
+package BankingApp;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class IdempotencyCache<V> {
+    private static final double PROTECTED_RATIO = 0.8;
+
+    private final ConcurrentHashMap<String, Node<V>> entries;
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final Node<V> probation = Node.sentinel();
+    private final Node<V> protectedSegment = Node.sentinel();
+    private final int maximumSize;
+    private final int protectedCapacity;
+    private final long ttlMillis;
+    private int probationSize;
+    private int protectedSize;
+
+    public IdempotencyCache(int maximumSize, long ttlMillis) {
+        if (maximumSize <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("Cache size and time-to-live must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.protectedCapacity = (int) (maximumSize * PROTECTED_RATIO);
+        this.ttlMillis = ttlMillis;
+        this.entries = new ConcurrentHashMap<>(Math.min(maximumSize, 1 << 16));
+    }
+
+    public V get(String key) {
+        Node<V> node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (node.expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+
+        // Reordering is best effort: a contended read skips it rather than waiting on writers
+        if (policyLock.tryLock()) {
+            try {
+                onAccess(node);
+            } finally {
+                policyLock.unlock();
+            }
+        }
+        return node.value;
+    }
+
+    public void put(String key, V value) {
+        put(key, value, System.currentTimeMillis());
+    }
+
+    public void put(String key, V value, long createdAtMillis) {
+        long expiresAt = createdAtMillis + ttlMillis;
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+
+        Node<V> node = new Node<>(key, value, expiresAt);
+        policyLock.lock();
+        try {
+            Node<V> previous = entries.put(key, node);
+            if (previous != null) {
+                unlink(previous);
+            }
+            node.inProtected = false;
+            probation.append(node);
+            probationSize++;
+            evict();
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void onAccess(Node<V> node) {
+        if (node.prev == null) {
+            return;
+        }
+        if (node.inProtected) {
+            node.unlink();
+            protectedSegment.append(node);
+            return;
+        }
+
+        node.unlink();
+        probationSize--;
+        node.inProtected = true;
+        protectedSegment.append(node);
+        protectedSize++;
+
+        if (protectedSize > protectedCapacity) {
+            Node<V> demoted = protectedSegment.next;
+            demoted.unlink();
+            protectedSize--;
+            demoted.inProtected = false;
+            probation.append(demoted);
+            probationSize++;
+        }
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        removeExpired(probation, now);
+        removeExpired(protectedSegment, now);
+
+        while (probationSize + protectedSize > maximumSize) {
+            Node<V> victim = probationSize > 0 ? probation.next : protectedSegment.next;
+            remove(victim);
+        }
+    }
+
+    private void removeExpired(Node<V> head, long now) {
+        while (head.next != head && head.next.expiresAt <= now) {
+            remove(head.next);
+        }
+    }
+
+    private void remove(Node<V> node) {
+        unlink(node);
+        entries.remove(node.key, node);
+    }
+
+    private void unlink(Node<V> node) {
+        if (node.prev == null) {
+            return;
+        }
+        node.unlink();
+        if (node.inProtected) {
+            protectedSize--;
+        } else {
+            probationSize--;
+        }
+    }
+
+    private static final class Node<V> {
+        private final String key;
+        private final V value;
+        private final long expiresAt;
+        private boolean inProtected;
+        private Node<V> prev;
+        private Node<V> next;
+
+        private Node(String key, V value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private static <V> Node<V> sentinel() {
+            Node<V> head = new Node<>(null, null, Long.MAX_VALUE);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+
+        private void append(Node<V> node) {
+            node.prev = prev;
+            node.next = this;
+            prev.next = node;
+            prev = node;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
\ No newline at end of file
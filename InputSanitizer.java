@@ -0,0 +1,248 @@
+package BankingApp;
+
+import java.util.BitSet;
+import java.util.List;
+
+public final class InputSanitizer {
+    // Each rule is the hand-scanned equivalent of the regex noted beside it
+    public enum Rule {
+        USERNAME,        // ^[a-zA-Z0-9_]{3,20}$
+        NAME,            // ^[a-zA-Z\s]{2,50}$
+        EMAIL,           // ^[A-Za-z0-9+_.-]+@(.+)$
+        ACCOUNT_NUMBER,  // ^ACC\d{8}$
+        AMOUNT,          // ^\d+(\.\d{1,2})?$
+        IDEMPOTENCY_KEY; // ^[a-zA-Z0-9_-]{1,64}$
+
+        public boolean matches(String input) {
+            if (input == null) {
+                return false;
+            }
+            switch (this) {
+                case USERNAME:
+                    return isUsername(input);
+                case NAME:
+                    return isName(input);
+                case EMAIL:
+                    return isEmail(input);
+                case ACCOUNT_NUMBER:
+                    return isAccountNumber(input);
+                case AMOUNT:
+                    return isAmount(input);
+                case IDEMPOTENCY_KEY:
+                    return isIdempotencyKey(input);
+                default:
+                    return false;
+            }
+        }
+    }
+
+    private InputSanitizer() {
+    }
+
+    // Same result as input.replaceAll("[<>\"']", ""), returning the input itself when nothing is removed
+    public static String stripMarkup(String input) {
+        if (input == null) {
+            return null;
+        }
+        int first = firstMarkup(input);
+        if (first < 0) {
+            return input;
+        }
+        char[] kept = new char[input.length()];
+        int length = copyWithoutMarkup(input, first, kept);
+        return new String(kept, 0, length);
+    }
+
+    // Same result as stripMarkup(input).trim(), allocating only when a character is removed or trimmed
+    public static String sanitize(String input) {
+        if (input == null) {
+            return null;
+        }
+        int first = firstMarkup(input);
+        if (first < 0) {
+            return input.trim();
+        }
+        char[] kept = new char[input.length()];
+        int end = copyWithoutMarkup(input, first, kept);
+        int start = 0;
+        while (start < end && kept[start] <= ' ') {
+            start++;
+        }
+        while (end > start && kept[end - 1] <= ' ') {
+            end--;
+        }
+        return new String(kept, start, end - start);
+    }
+
+    // Rows of the column that fail the rule; null entries fail like they do in DataValidator
+    public static BitSet invalidRows(Rule rule, List<String> column) {
+        BitSet invalid = new BitSet();
+        for (int i = 0; i < column.size(); i++) {
+            if (!rule.matches(column.get(i))) {
+                invalid.set(i);
+            }
+        }
+        return invalid;
+    }
+
+    // Sanitizes a column in place, replacing only the entries that change, and returns how many did
+    public static int sanitizeAll(List<String> column) {
+        int changed = 0;
+        for (int i = 0; i < column.size(); i++) {
+            String value = column.get(i);
+            String clean = sanitize(value);
+            if (clean != value) {
+                column.set(i, clean);
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    private static boolean isMarkup(char c) {
+        return c == '<' || c == '>' || c == '"' || c == '\'';
+    }
+
+    private static int firstMarkup(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            if (isMarkup(input.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int copyWithoutMarkup(String input, int first, char[] kept) {
+        input.getChars(0, first, kept, 0);
+        int length = first;
+        for (int i = first + 1; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (!isMarkup(c)) {
+                kept[length++] = c;
+            }
+        }
+        return length;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    // \d without UNICODE_CHARACTER_CLASS only matches ASCII digits
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // \s is [ \t\n\x0B\f\r]
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    // Characters the regex '.' refuses without DOTALL
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    // Surrogates never satisfy the ASCII classes, so counting chars agrees with the regex counting code points
+    private static boolean isUsername(String input) {
+        int length = input.length();
+        if (length < 3 || length > 20) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+            if (!isAsciiLetter(c) && !isAsciiDigit(c) && c != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isName(String input) {
+        int length = input.length();
+        if (length < 2 || length > 50) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+            if (!isAsciiLetter(c) && !isRegexSpace(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isEmail(String input) {
+        // The local part cannot contain '@', so the regex can only split at the first one
+        int at = 0;
+        while (at < input.length() && input.charAt(at) != '@') {
+            char c = input.charAt(at);
+            if (!isAsciiLetter(c) && !isAsciiDigit(c) && c != '+' && c != '_' && c != '.' && c != '-') {
+                return false;
+            }
+            at++;
+        }
+        if (at == 0 || at >= input.length() - 1) {
+            return false;
+        }
+        for (int i = at + 1; i < input.length(); i++) {
+            if (isLineTerminator(input.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAccountNumber(String input) {
+        if (input.length() != 11 || !input.startsWith("ACC")) {
+            return false;
+        }
+        for (int i = 3; i < 11; i++) {
+            if (!isAsciiDigit(input.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAmount(String input) {
+        int length = input.length();
+        int i = 0;
+        while (i < length && isAsciiDigit(input.charAt(i))) {
+            i++;
+        }
+        if (i == 0) {
+            return false;
+        }
+        if (i == length) {
+            return true;
+        }
+        if (input.charAt(i) != '.') {
+            return false;
+        }
+        int fraction = length - i - 1;
+        if (fraction < 1 || fraction > 2) {
+            return false;
+        }
+        for (int j = i + 1; j < length; j++) {
+            if (!isAsciiDigit(input.charAt(j))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isIdempotencyKey(String input) {
+        int length = input.length();
+        if (length < 1 || length > 64) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+            if (!isAsciiLetter(c) && !isAsciiDigit(c) && c != '_' && c != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package BankingApp;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+// Checks the hand-written scanners in InputSanitizer against the regexes they replaced.
+// Run with: java BankingApp.InputSanitizerEquivalence [iterations] [seed]; exits with status 1 on any mismatch.
+public final class InputSanitizerEquivalence {
+    private static final Pattern[] PATTERNS = {
+        Pattern.compile("^[a-zA-Z0-9_]{3,20}$"),
+        Pattern.compile("^[a-zA-Z\\s]{2,50}$"),
+        Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$"),
+        Pattern.compile("^ACC\\d{8}$"),
+        Pattern.compile("^\\d+(\\.\\d{1,2})?$"),
+        Pattern.compile("^[a-zA-Z0-9_-]{1,64}$")
+    };
+
+    // Boundary characters for the rules: class edges, every \s member, every '.' line terminator,
+    // non-ASCII letters and digits, control characters and a lone surrogate
+    private static final String EDGE_CHARACTERS = "aZz09_-+.@ACC<>\"' \t\n\r\u000B\f\u0085\u2028\u2029"
+            + "\u00e9\u0663\u00a0\u0000\u001f\ud83d\ude00\ud83d";
+    private static final String[] FOCUSED_ALPHABETS = { "0123456789.", "ACC0123456789\u0663", "abc@.\n" };
+    private static final String MARKUP = "[<>\"']";
+
+    private InputSanitizerEquivalence() {
+    }
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 7L;
+
+        if (PATTERNS.length != InputSanitizer.Rule.values().length) {
+            fail("pattern table does not cover every rule");
+        }
+        checkNulls();
+
+        Random random = new Random(seed);
+        long checks = 0;
+        for (int i = 0; i < iterations; i++) {
+            String input = randomInput(random, i);
+            checks += checkRules(input);
+            checkSanitizers(input);
+        }
+        System.out.println("InputSanitizer matches the original patterns: " + checks + " rule checks, seed " + seed);
+    }
+
+    private static String randomInput(Random random, int iteration) {
+        String alphabet = iteration % 3 == 0
+                ? EDGE_CHARACTERS
+                : FOCUSED_ALPHABETS[random.nextInt(FOCUSED_ALPHABETS.length)];
+        int length = random.nextInt(iteration % 10 == 0 ? 70 : 14);
+        StringBuilder input = new StringBuilder();
+        if (iteration % 5 == 0) {
+            input.append("ACC");
+        }
+        for (int i = 0; i < length; i++) {
+            input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return input.toString();
+    }
+
+    private static int checkRules(String input) {
+        InputSanitizer.Rule[] rules = InputSanitizer.Rule.values();
+        for (int i = 0; i < rules.length; i++) {
+            boolean expected = PATTERNS[i].matcher(input).matches();
+            if (rules[i].matches(input) != expected) {
+                fail(rules[i] + " returned " + !expected + " for \"" + escape(input) + "\"");
+            }
+        }
+        return rules.length;
+    }
+
+    private static void checkSanitizers(String input) {
+        String stripped = input.replaceAll(MARKUP, "");
+        if (!InputSanitizer.stripMarkup(input).equals(stripped)) {
+            fail("stripMarkup differs for \"" + escape(input) + "\"");
+        }
+        if (!InputSanitizer.sanitize(input).equals(stripped.trim())) {
+            fail("sanitize differs for \"" + escape(input) + "\"");
+        }
+        if (!DataValidator.sanitizeInput(input).equals(stripped.trim())) {
+            fail("DataValidator.sanitizeInput differs for \"" + escape(input) + "\"");
+        }
+    }
+
+    private static void checkNulls() {
+        for (InputSanitizer.Rule rule : InputSanitizer.Rule.values()) {
+            if (rule.matches(null)) {
+                fail(rule + " accepted null");
+            }
+        }
+        if (InputSanitizer.stripMarkup(null) != null || InputSanitizer.sanitize(null) != null) {
+            fail("null input was not passed through");
+        }
+    }
+
+    private static String escape(String input) {
+        StringBuilder escaped = new StringBuilder();
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c < ' ' || c > '~') {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static void fail(String message) {
+        System.err.println("Equivalence check failed: " + message);
+        System.exit(1);
+    }
+}
\ No newline at end of file
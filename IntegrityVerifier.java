@@ -0,0 +1,287 @@
+package BankingApp;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32C;
+
+public class IntegrityVerifier {
+    private static final int MAX_SEGMENTS_IN_FLIGHT = 2 * Runtime.getRuntime().availableProcessors();
+
+    private final ConcurrentLinkedQueue<String> discrepancies = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<String> warnings = new ConcurrentLinkedQueue<>();
+    private final AtomicLong recordsRead = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong transactionsReplayed = new AtomicLong();
+
+    public static IntegrityReport verifyStore() {
+        IntegrityVerifier verifier = new IntegrityVerifier();
+        long start = System.nanoTime();
+        verifier.checkPendingCommit();
+
+        Map<String, BigDecimal> balances = new HashMap<>();
+        verifier.streamFile(FileDataManager.USERS_FILE, obj -> { });
+        verifier.streamFile(FileDataManager.ACCOUNTS_FILE, obj -> {
+            if (obj instanceof BankAccount) {
+                BankAccount account = (BankAccount) obj;
+                balances.put(account.getAccountNumber(), account.getBalance());
+            }
+        });
+        verifier.streamFile(FileDataManager.ACCRUALS_FILE, obj -> { });
+        verifier.streamFile(FileDataManager.ORDERS_FILE, obj -> { });
+
+        // Transactions are replayed in file order as segments decode, keeping one running balance per account
+        Map<String, BigDecimal> replayed = new HashMap<>();
+        verifier.streamFile(FileDataManager.TRANSACTIONS_FILE, obj -> {
+            if (obj instanceof Transaction) {
+                Transaction transaction = (Transaction) obj;
+                BigDecimal previous = replayed.getOrDefault(transaction.getAccountNumber(), BigDecimal.ZERO);
+                verifier.checkLink(transaction.getAccountNumber(), previous, transaction);
+                replayed.put(transaction.getAccountNumber(), transaction.getBalanceAfter());
+                verifier.transactionsReplayed.incrementAndGet();
+            }
+        });
+
+        verifier.reconcile(balances, replayed);
+        return verifier.report(balances.size(), start);
+    }
+
+    // The verifier does not hold the data directory lock, so it reports an unfinished commit rather than completing it
+    private void checkPendingCommit() {
+        try {
+            List<String> pending = FileDataManager.pendingCommitFiles();
+            if (!pending.isEmpty()) {
+                discrepancies.add("interrupted commit of " + pending + " has not been completed; "
+                        + "starting the service completes it");
+            }
+        } catch (IOException e) {
+            discrepancies.add("commit marker unreadable (" + e.getMessage() + ")");
+        }
+    }
+
+    // Balances are passed by value so a caller can snapshot them under its lock and verify outside it
+    public static IntegrityReport verify(Map<String, BigDecimal> balances, List<Transaction> transactions) {
+        IntegrityVerifier verifier = new IntegrityVerifier();
+        long start = System.nanoTime();
+        verifier.reconcile(balances, verifier.replay(transactions));
+        return verifier.report(balances.size(), start);
+    }
+
+    // Segments are checksummed and decrypted on the common pool while the next one is read; results
+    // reach the sink in file order and at most MAX_SEGMENTS_IN_FLIGHT segments are held at once
+    private void streamFile(String filename, Consumer<Object> sink) {
+        FileDataManager.SegmentChecksums stored = null;
+        boolean checksumsMissing = false;
+        try {
+            stored = FileDataManager.loadChecksums(filename);
+            checksumsMissing = stored == null;
+        } catch (IOException | RuntimeException e) {
+            discrepancies.add(filename + ": checksum file unreadable (" + e.getMessage() + ")");
+        }
+
+        FileDataManager.SegmentChecksums checksums = stored;
+        Deque<Future<Object[]>> inFlight = new ArrayDeque<>();
+        AtomicLong records = new AtomicLong();
+        try {
+            FileDataManager.readEncryptedSegments(filename, (segment, batch) -> {
+                records.addAndGet(batch.size());
+                inFlight.add(ForkJoinPool.commonPool().submit(() -> decodeSegment(filename, checksums, segment, batch)));
+                while (inFlight.size() >= MAX_SEGMENTS_IN_FLIGHT) {
+                    drain(filename, inFlight.poll(), sink);
+                }
+            });
+        } catch (IOException e) {
+            discrepancies.add(filename + ": unreadable (" + e.getMessage() + ")");
+        }
+        while (!inFlight.isEmpty()) {
+            drain(filename, inFlight.poll(), sink);
+        }
+        recordsRead.addAndGet(records.get());
+
+        if (checksumsMissing && records.get() > 0) {
+            warnings.add(filename + ": no checksum file, segment checks skipped");
+        } else if (stored != null && stored.getRecordCount() != records.get()) {
+            discrepancies.add(String.format("%s: %d records on disk, %d recorded in checksum file",
+                    filename, records.get(), stored.getRecordCount()));
+        }
+    }
+
+    private Object[] decodeSegment(String filename, FileDataManager.SegmentChecksums stored, int segment,
+                                   List<byte[]> batch) {
+        int first = segment * FileDataManager.CHECKSUM_SEGMENT_RECORDS;
+        CRC32C crc = new CRC32C();
+        long bytes = 0;
+        for (byte[] record : batch) {
+            crc.update(record);
+            bytes += record.length;
+        }
+        bytesRead.addAndGet(bytes);
+
+        int[] checksums = stored != null ? stored.getChecksums() : null;
+        if (checksums != null && segment < checksums.length && (int) crc.getValue() != checksums[segment]) {
+            discrepancies.add(String.format("%s: CRC32C mismatch in segment %d (records %d-%d)",
+                    filename, segment, first, first + batch.size() - 1));
+        }
+
+        Object[] decoded = new Object[batch.size()];
+        for (int i = 0; i < decoded.length; i++) {
+            try {
+                decoded[i] = DataEncryptor.decryptObject(batch.get(i));
+            } catch (RuntimeException e) {
+                discrepancies.add(filename + ": record " + (first + i) + " cannot be decrypted");
+            }
+        }
+        return decoded;
+    }
+
+    private void drain(String filename, Future<Object[]> segment, Consumer<Object> sink) {
+        Object[] decoded;
+        try {
+            decoded = segment.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            discrepancies.add(filename + ": verification interrupted");
+            return;
+        } catch (ExecutionException e) {
+            discrepancies.add(filename + ": segment could not be verified (" + e.getCause() + ")");
+            return;
+        }
+        for (Object obj : decoded) {
+            if (obj != null) {
+                sink.accept(obj);
+            }
+        }
+    }
+
+    private Map<String, BigDecimal> replay(List<Transaction> transactions) {
+        Map<String, List<Transaction>> byAccount = transactions.stream()
+                .collect(Collectors.groupingBy(Transaction::getAccountNumber));
+
+        Map<String, BigDecimal> replayed = new ConcurrentHashMap<>();
+        byAccount.entrySet().parallelStream().forEach(entry -> {
+            BigDecimal balance = BigDecimal.ZERO;
+            for (Transaction transaction : entry.getValue()) {
+                checkLink(entry.getKey(), balance, transaction);
+                balance = transaction.getBalanceAfter();
+            }
+            transactionsReplayed.addAndGet(entry.getValue().size());
+            replayed.put(entry.getKey(), balance);
+        });
+        return replayed;
+    }
+
+    private void checkLink(String accountNumber, BigDecimal previous, Transaction transaction) {
+        if (!chains(previous, transaction)) {
+            discrepancies.add(String.format("account %s: transaction %s does not chain from %.2f to %.2f",
+                    accountNumber, transaction.getTransactionId(), previous, transaction.getBalanceAfter()));
+        }
+    }
+
+    private void reconcile(Map<String, BigDecimal> balances, Map<String, BigDecimal> replayed) {
+        for (String accountNumber : replayed.keySet()) {
+            if (!balances.containsKey(accountNumber)) {
+                discrepancies.add("account " + accountNumber + ": has transactions but no stored account");
+            }
+        }
+        for (Map.Entry<String, BigDecimal> account : balances.entrySet()) {
+            BigDecimal balance = replayed.getOrDefault(account.getKey(), BigDecimal.ZERO);
+            if (balance.compareTo(account.getValue()) != 0) {
+                discrepancies.add(String.format("account %s: stored balance %.2f but history ends at %.2f",
+                        account.getKey(), account.getValue(), balance));
+            }
+        }
+    }
+
+    private static boolean chains(BigDecimal previous, Transaction transaction) {
+        BigDecimal recorded = transaction.getBalanceAfter();
+        boolean credited = previous.add(transaction.getAmount()).compareTo(recorded) == 0;
+        boolean debited = previous.subtract(transaction.getAmount()).compareTo(recorded) == 0;
+
+        switch (transaction.getType()) {
+            case DEPOSIT:
+            case INTEREST:
+                return credited;
+            case WITHDRAWAL:
+                return debited;
+            case TRANSFER:
+                // Both legs of a transfer carry a positive amount, so either direction chains
+                return credited || debited;
+            default:
+                return false;
+        }
+    }
+
+    private IntegrityReport report(int accountsChecked, long startNanos) {
+        return new IntegrityReport(new ArrayList<>(discrepancies), new ArrayList<>(warnings), accountsChecked,
+                transactionsReplayed.get(), recordsRead.get(), bytesRead.get(),
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    public static class IntegrityReport {
+        private final List<String> discrepancies;
+        private final List<String> warnings;
+        private final int accountsChecked;
+        private final long transactionsReplayed;
+        private final long recordsRead;
+        private final long bytesRead;
+        private final long elapsedMillis;
+
+        public IntegrityReport(List<String> discrepancies, List<String> warnings, int accountsChecked,
+                               long transactionsReplayed, long recordsRead, long bytesRead, long elapsedMillis) {
+            this.discrepancies = Collections.unmodifiableList(discrepancies);
+            this.warnings = Collections.unmodifiableList(warnings);
+            this.accountsChecked = accountsChecked;
+            this.transactionsReplayed = transactionsReplayed;
+            this.recordsRead = recordsRead;
+            this.bytesRead = bytesRead;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public boolean isConsistent() { return discrepancies.isEmpty(); }
+        public List<String> getDiscrepancies() { return discrepancies; }
+        public List<String> getWarnings() { return warnings; }
+        public int getAccountsChecked() { return accountsChecked; }
+        public long getTransactionsReplayed() { return transactionsReplayed; }
+        public long getRecordsRead() { return recordsRead; }
+        public long getBytesRead() { return bytesRead; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("IntegrityReport{consistent=%s, discrepancies=%d, warnings=%d, accounts=%d, "
+                               + "transactions=%d, records=%d, bytes=%d, elapsedMs=%d}",
+                               isConsistent(), discrepancies.size(), warnings.size(), accountsChecked,
+                               transactionsReplayed, recordsRead, bytesRead, elapsedMillis);
+        }
+    }
+
+    public static void main(String[] args) {
+        IntegrityReport report = verifyStore();
+
+        for (String warning : report.getWarnings()) {
+            System.out.println("WARNING: " + warning);
+        }
+        for (String discrepancy : report.getDiscrepancies()) {
+            System.out.println("DISCREPANCY: " + discrepancy);
+        }
+        System.out.println(report);
+
+        if (!report.isConsistent()) {
+            System.exit(1);
+        }
+    }
+}
\ No newline at end of file
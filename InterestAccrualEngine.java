@@ -0,0 +1,190 @@
+package BankingApp;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class InterestAccrualEngine {
+    private static final int SPLIT_THRESHOLD = 4096;
+    private static final BigDecimal DAYS_IN_YEAR = BigDecimal.valueOf(365);
+    private static final String INTEREST_PREFIX = "INT";
+
+    private final ForkJoinPool pool;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong credited = new AtomicLong();
+    private volatile long total;
+
+    public InterestAccrualEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public InterestAccrualEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public AccrualReport accrue(List<BankAccount> accounts, LocalDate businessDate,
+                                BigDecimal annualRate, Set<String> postedTransactionIds) {
+        BankAccount[] snapshot = accounts.toArray(new BankAccount[0]);
+        InterestCredit[] results = new InterestCredit[snapshot.length];
+        BigDecimal dailyRate = annualRate.divide(DAYS_IN_YEAR, MathContext.DECIMAL64);
+        String idPrefix = transactionIdPrefix(businessDate);
+
+        processed.set(0);
+        credited.set(0);
+        total = snapshot.length;
+
+        long start = System.nanoTime();
+        BigDecimal totalInterest = pool.invoke(new AccrualTask(snapshot, results, 0, snapshot.length,
+                dailyRate, idPrefix, postedTransactionIds));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        List<InterestCredit> credits = new ArrayList<>((int) credited.get());
+        for (InterestCredit credit : results) {
+            if (credit != null) {
+                credits.add(credit);
+            }
+        }
+
+        return new AccrualReport(businessDate, snapshot.length, credits, totalInterest, elapsedMillis);
+    }
+
+    public static String transactionIdPrefix(LocalDate businessDate) {
+        return INTEREST_PREFIX + businessDate.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    public long getProcessedCount() { return processed.get(); }
+    public long getCreditedCount() { return credited.get(); }
+    public long getTotalCount() { return total; }
+
+    public double getProgress() {
+        long t = total;
+        return t == 0 ? 1.0 : (double) processed.get() / t;
+    }
+
+    private class AccrualTask extends RecursiveTask<BigDecimal> {
+        private static final long serialVersionUID = 1L;
+
+        private final BankAccount[] accounts;
+        private final InterestCredit[] results;
+        private final int from;
+        private final int to;
+        private final BigDecimal dailyRate;
+        private final String idPrefix;
+        private final Set<String> postedTransactionIds;
+
+        AccrualTask(BankAccount[] accounts, InterestCredit[] results, int from, int to,
+                    BigDecimal dailyRate, String idPrefix, Set<String> postedTransactionIds) {
+            this.accounts = accounts;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.dailyRate = dailyRate;
+            this.idPrefix = idPrefix;
+            this.postedTransactionIds = postedTransactionIds;
+        }
+
+        @Override
+        protected BigDecimal compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                return computeDirectly();
+            }
+
+            int mid = (from + to) >>> 1;
+            AccrualTask left = new AccrualTask(accounts, results, from, mid, dailyRate, idPrefix, postedTransactionIds);
+            AccrualTask right = new AccrualTask(accounts, results, mid, to, dailyRate, idPrefix, postedTransactionIds);
+            left.fork();
+            BigDecimal rightTotal = right.compute();
+            return left.join().add(rightTotal);
+        }
+
+        private BigDecimal computeDirectly() {
+            BigDecimal subtotal = BigDecimal.ZERO;
+            int creditedHere = 0;
+
+            for (int i = from; i < to; i++) {
+                BankAccount account = accounts[i];
+                if (account.getAccountType() != BankAccount.AccountType.SAVINGS || !account.isActive()) {
+                    continue;
+                }
+
+                String transactionId = idPrefix + account.getAccountNumber();
+                if (postedTransactionIds.contains(transactionId)) {
+                    continue;
+                }
+
+                BigDecimal interest = account.getBalance().multiply(dailyRate)
+                        .setScale(2, RoundingMode.HALF_EVEN);
+                if (interest.signum() <= 0) {
+                    continue;
+                }
+
+                results[i] = new InterestCredit(account.getAccountNumber(), transactionId, interest);
+                subtotal = subtotal.add(interest);
+                creditedHere++;
+            }
+
+            credited.addAndGet(creditedHere);
+            processed.addAndGet(to - from);
+            return subtotal;
+        }
+    }
+
+    public static class InterestCredit {
+        private final String accountNumber;
+        private final String transactionId;
+        private final BigDecimal amount;
+
+        public InterestCredit(String accountNumber, String transactionId, BigDecimal amount) {
+            this.accountNumber = accountNumber;
+            this.transactionId = transactionId;
+            this.amount = amount;
+        }
+
+        public String getAccountNumber() { return accountNumber; }
+        public String getTransactionId() { return transactionId; }
+        public BigDecimal getAmount() { return amount; }
+    }
+
+    public static class AccrualReport {
+        private final LocalDate businessDate;
+        private final int accountsScanned;
+        private final List<InterestCredit> credits;
+        private final BigDecimal totalInterest;
+        private final long elapsedMillis;
+
+        public AccrualReport(LocalDate businessDate, int accountsScanned, List<InterestCredit> credits,
+                             BigDecimal totalInterest, long elapsedMillis) {
+            this.businessDate = businessDate;
+            this.accountsScanned = accountsScanned;
+            this.credits = Collections.unmodifiableList(credits);
+            this.totalInterest = totalInterest;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public static AccrualReport alreadyCompleted(LocalDate businessDate) {
+            return new AccrualReport(businessDate, 0, new ArrayList<>(), BigDecimal.ZERO, 0);
+        }
+
+        public LocalDate getBusinessDate() { return businessDate; }
+        public int getAccountsScanned() { return accountsScanned; }
+        public List<InterestCredit> getCredits() { return credits; }
+        public int getAccountsCredited() { return credits.size(); }
+        public BigDecimal getTotalInterest() { return totalInterest; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("AccrualReport{date=%s, scanned=%d, credited=%d, totalInterest=%.2f, elapsedMs=%d}",
+                               businessDate, accountsScanned, credits.size(), totalInterest, elapsedMillis);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package BankingApp;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+
+public class ReplicationBatch implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private long sequence;
+    private boolean snapshot;
+    private List<User> users;
+    private List<BankAccount> accounts;
+    private List<Transaction> transactions;
+    private List<StandingOrder> standingOrders;
+    private List<LocalDate> accrualRuns;
+
+    public ReplicationBatch(long sequence, boolean snapshot, List<User> users, List<BankAccount> accounts,
+                            List<Transaction> transactions, List<StandingOrder> standingOrders,
+                            List<LocalDate> accrualRuns) {
+        this.sequence = sequence;
+        this.snapshot = snapshot;
+        this.users = users;
+        this.accounts = accounts;
+        this.transactions = transactions;
+        this.standingOrders = standingOrders;
+        this.accrualRuns = accrualRuns;
+    }
+
+    public long getSequence() { return sequence; }
+    public boolean isSnapshot() { return snapshot; }
+    public List<User> getUsers() { return users; }
+    public List<BankAccount> getAccounts() { return accounts; }
+    public List<Transaction> getTransactions() { return transactions; }
+    public List<StandingOrder> getStandingOrders() { return standingOrders; }
+    public List<LocalDate> getAccrualRuns() { return accrualRuns; }
+
+    @Override
+    public String toString() {
+        return String.format("ReplicationBatch{sequence=%d, snapshot=%s, users=%d, accounts=%d, transactions=%d}",
+                           sequence, snapshot, users.size(), accounts.size(), transactions.size());
+    }
+}
\ No newline at end of file
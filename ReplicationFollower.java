@@ -0,0 +1,167 @@
+package BankingApp;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.security.MessageDigest;
+
+public class ReplicationFollower {
+    private static final long RECONNECT_MILLIS = 1000;
+    private static final long PERSIST_INTERVAL_MILLIS = 1000;
+    private static final int MAX_FRAME_BYTES = 1 << 30;
+
+    private final BankingService bankingService;
+    private final String host;
+    private final int port;
+    private final long maxLagMillis;
+    private final byte[] secret;
+    private volatile boolean running;
+    private volatile Socket socket;
+    private volatile long appliedSequence = -1;
+    private volatile long lastCaughtUpMillis;
+    private Thread worker;
+
+    public ReplicationFollower(BankingService bankingService, String host, int port, long maxLagMillis, 
+                               byte[] secret) {
+        this.bankingService = bankingService;
+        this.host = host;
+        this.port = port;
+        this.maxLagMillis = maxLagMillis;
+        this.secret = secret;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "replication-follower");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        closeSocket();
+        if (worker != null) {
+            try {
+                worker.join(RECONNECT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+    }
+
+    public long getLagMillis() {
+        return lastCaughtUpMillis == 0 ? Long.MAX_VALUE : System.currentTimeMillis() - lastCaughtUpMillis;
+    }
+
+    public boolean isWithinLag() {
+        return getLagMillis() <= maxLagMillis;
+    }
+
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    private void run() {
+        while (running) {
+            try (Socket connection = new Socket(host, port)) {
+                socket = connection;
+                appliedSequence = -1;
+                DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream(), 1 << 16));
+                authenticate(connection, in);
+                follow(in);
+            } catch (EOFException e) {
+                if (running) {
+                    System.err.println("Replication connection to " + host + ":" + port + " closed by primary");
+                }
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Replication connection to " + host + ":" + port + " lost: " + e.getMessage());
+                }
+            }
+
+            if (running) {
+                try {
+                    Thread.sleep(RECONNECT_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void authenticate(Socket connection, DataInputStream in) throws IOException {
+        connection.setSoTimeout(ReplicationPrimary.HANDSHAKE_TIMEOUT_MILLIS);
+        DataOutputStream out = new DataOutputStream(connection.getOutputStream());
+
+        byte[] primaryNonce = new byte[ReplicationPrimary.NONCE_BYTES];
+        in.readFully(primaryNonce);
+        byte[] followerNonce = ReplicationPrimary.newNonce();
+        out.write(followerNonce);
+        out.write(ReplicationPrimary.handshakeMac(secret, ReplicationPrimary.ROLE_FOLLOWER, primaryNonce, followerNonce));
+        out.flush();
+
+        byte[] proof = new byte[ReplicationPrimary.MAC_BYTES];
+        in.readFully(proof);
+        byte[] expected = ReplicationPrimary.handshakeMac(secret, ReplicationPrimary.ROLE_PRIMARY, primaryNonce, followerNonce);
+        if (!MessageDigest.isEqual(proof, expected)) {
+            throw new IOException("primary failed authentication");
+        }
+        connection.setSoTimeout(0);
+    }
+
+    private void follow(DataInputStream in) throws IOException {
+        boolean dirty = false;
+        long lastPersisted = System.currentTimeMillis();
+
+        while (running) {
+            byte type = in.readByte();
+            if (type == ReplicationPrimary.FRAME_HEARTBEAT) {
+                long primarySequence = in.readLong();
+                if (appliedSequence >= primarySequence) {
+                    lastCaughtUpMillis = System.currentTimeMillis();
+                }
+            } else if (type == ReplicationPrimary.FRAME_BATCH) {
+                int length = in.readInt();
+                if (length < 0 || length > MAX_FRAME_BYTES) {
+                    throw new IOException("Invalid replication frame length " + length);
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+
+                ReplicationBatch batch = ReplicationPrimary.decodeBatch(payload);
+                bankingService.applyReplicationBatch(batch);
+                appliedSequence = batch.getSequence();
+                dirty = true;
+            } else {
+                throw new IOException("Unknown replication frame type " + type);
+            }
+
+            // Local files are rewritten once per burst of batches rather than once per batch
+            long now = System.currentTimeMillis();
+            if (dirty && (in.available() == 0 || now - lastPersisted >= PERSIST_INTERVAL_MILLIS)) {
+                bankingService.persistReplicatedState();
+                dirty = false;
+                lastPersisted = now;
+            }
+        }
+    }
+
+    private void closeSocket() {
+        Socket current = socket;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                System.err.println("Error closing replication connection: " + e.getMessage());
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,339 @@
+package BankingApp;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+public class ReplicationPrimary {
+    static final byte FRAME_BATCH = 1;
+    static final byte FRAME_HEARTBEAT = 2;
+    static final long HEARTBEAT_MILLIS = 200;
+    static final int HANDSHAKE_TIMEOUT_MILLIS = 5000;
+    static final int NONCE_BYTES = 32;
+    static final int MAC_BYTES = 32;
+    static final byte ROLE_PRIMARY = 'P';
+    static final byte ROLE_FOLLOWER = 'F';
+    private static final int MAX_QUEUED_FRAMES = 100_000;
+    private static final String SECRET_PROPERTY = "banking.replication.secret";
+    private static final String SECRET_ENV = "BANKING_REPLICATION_SECRET";
+    private static final int MIN_SECRET_LENGTH = 16;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final ObjectInputFilter BATCH_FILTER = 
+            ObjectInputFilter.Config.createFilter("BankingApp.*;java.base/*;!*");
+
+    private final BankingService bankingService;
+    private final int port;
+    private final byte[] secret;
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile long publishedSequence;
+    private final List<FollowerConnection> followers = new CopyOnWriteArrayList<>();
+    private ServerSocket serverSocket;
+    private ScheduledExecutorService heartbeat;
+    private volatile boolean running;
+
+    public ReplicationPrimary(BankingService bankingService, int port, byte[] secret) {
+        this.bankingService = bankingService;
+        this.port = port;
+        this.secret = secret;
+    }
+
+    // The shared secret is configured per deployment and never compiled into the application
+    static byte[] loadSecret() {
+        String secret = System.getProperty(SECRET_PROPERTY, System.getenv(SECRET_ENV));
+        if (secret == null || secret.length() < MIN_SECRET_LENGTH) {
+            return null;
+        }
+        return secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] newNonce() {
+        byte[] nonce = new byte[NONCE_BYTES];
+        RANDOM.nextBytes(nonce);
+        return nonce;
+    }
+
+    // Each side proves it holds the secret by signing both nonces under its own role
+    static byte[] handshakeMac(byte[] secret, byte role, byte[] primaryNonce, byte[] followerNonce) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            mac.update(role);
+            mac.update(primaryNonce);
+            mac.update(followerNonce);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is unavailable", e);
+        }
+    }
+
+    // Frames travel over a connection both peers have already authenticated, so they are serialized as is
+    static byte[] encodeBatch(ReplicationBatch batch) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(batch);
+        }
+        return bytes.toByteArray();
+    }
+
+    static ReplicationBatch decodeBatch(byte[] payload) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            in.setObjectInputFilter(BATCH_FILTER);
+            return (ReplicationBatch) in.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Unreadable replication batch", e);
+        }
+    }
+
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        running = true;
+
+        Thread acceptor = new Thread(this::acceptFollowers, "replication-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replication-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, HEARTBEAT_MILLIS, HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (heartbeat != null) {
+            heartbeat.shutdown();
+        }
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing replication socket: " + e.getMessage());
+        }
+        for (FollowerConnection follower : followers) {
+            follower.close();
+        }
+        followers.clear();
+    }
+
+    long nextSequence() {
+        return sequence.incrementAndGet();
+    }
+
+    // Called with the service lock held so batches reach every follower in commit order. The batch is
+    // already committed locally, so a batch that cannot be shipped drops the followers to re-snapshot
+    // instead of failing the posting
+    void publish(ReplicationBatch batch) {
+        if (!followers.isEmpty()) {
+            try {
+                byte[] frame = encodeBatch(batch);
+                for (FollowerConnection follower : followers) {
+                    follower.enqueue(new Frame(FRAME_BATCH, frame, 0));
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error publishing replication batch " + batch.getSequence() + ": " + e.getMessage());
+                for (FollowerConnection follower : followers) {
+                    follower.close();
+                }
+            }
+        }
+        publishedSequence = batch.getSequence();
+    }
+
+    public int getFollowerCount() {
+        return followers.size();
+    }
+
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    public int getPort() {
+        return serverSocket != null ? serverSocket.getLocalPort() : port;
+    }
+
+    private void acceptFollowers() {
+        while (running) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Error accepting replication follower: " + e.getMessage());
+                }
+                continue;
+            }
+
+            // A failure with one follower closes only that connection; the acceptor keeps serving the rest
+            try {
+                register(socket);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error registering replication follower " + socket.getRemoteSocketAddress() + ": " 
+                        + e.getMessage());
+                try {
+                    socket.close();
+                } catch (IOException closeError) {
+                    System.err.println("Error closing replication follower: " + closeError.getMessage());
+                }
+            }
+        }
+    }
+
+    private void register(Socket socket) throws IOException {
+        socket.setTcpNoDelay(true);
+        if (!authenticate(socket)) {
+            System.err.println("Rejected unauthenticated replication follower " + socket.getRemoteSocketAddress());
+            socket.close();
+            return;
+        }
+        FollowerConnection follower = new FollowerConnection(socket);
+
+        // The snapshot and registration happen under the service lock so no commit falls between them
+        synchronized (bankingService) {
+            ReplicationBatch snapshot = bankingService.createReplicationSnapshot(publishedSequence);
+            follower.enqueue(new Frame(FRAME_BATCH, encodeBatch(snapshot), 0));
+            followers.add(follower);
+        }
+        follower.start();
+    }
+
+    // Nothing is sent before the follower proves it holds the secret, and the follower in turn
+    // refuses to read batches from a primary that cannot prove the same
+    private boolean authenticate(Socket socket) {
+        try {
+            socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+
+            byte[] primaryNonce = newNonce();
+            out.write(primaryNonce);
+            out.flush();
+
+            byte[] followerNonce = new byte[NONCE_BYTES];
+            byte[] proof = new byte[MAC_BYTES];
+            in.readFully(followerNonce);
+            in.readFully(proof);
+            if (!MessageDigest.isEqual(proof, handshakeMac(secret, ROLE_FOLLOWER, primaryNonce, followerNonce))) {
+                return false;
+            }
+
+            out.write(handshakeMac(secret, ROLE_PRIMARY, primaryNonce, followerNonce));
+            out.flush();
+            socket.setSoTimeout(0);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void sendHeartbeats() {
+        // Only sequences already queued are advertised, so a heartbeat never overtakes its batch
+        long current = publishedSequence;
+        for (FollowerConnection follower : followers) {
+            follower.enqueue(new Frame(FRAME_HEARTBEAT, null, current));
+        }
+    }
+
+    private static final class Frame {
+        private final byte type;
+        private final byte[] payload;
+        private final long sequence;
+
+        Frame(byte type, byte[] payload, long sequence) {
+            this.type = type;
+            this.payload = payload;
+            this.sequence = sequence;
+        }
+    }
+
+    private final class FollowerConnection {
+        private final Socket socket;
+        private final BlockingQueue<Frame> frames = new ArrayBlockingQueue<>(MAX_QUEUED_FRAMES);
+        private volatile boolean open = true;
+
+        FollowerConnection(Socket socket) {
+            this.socket = socket;
+        }
+
+        void start() {
+            Thread sender = new Thread(this::send, "replication-sender-" + socket.getPort());
+            sender.setDaemon(true);
+            sender.start();
+        }
+
+        void enqueue(Frame frame) {
+            // A follower that falls this far behind is dropped and re-snapshots when it reconnects
+            if (open && !frames.offer(frame)) {
+                System.err.println("Replication follower " + socket.getRemoteSocketAddress() + " fell behind, disconnecting");
+                close();
+            }
+        }
+
+        private void send() {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+                while (open) {
+                    Frame frame = frames.poll(HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (frame == null) {
+                        continue;
+                    }
+                    out.writeByte(frame.type);
+                    if (frame.type == FRAME_BATCH) {
+                        out.writeInt(frame.payload.length);
+                        out.write(frame.payload);
+                    } else {
+                        out.writeLong(frame.sequence);
+                    }
+                    if (frames.isEmpty()) {
+                        out.flush();
+                    }
+                }
+            } catch (IOException e) {
+                if (open) {
+                    System.err.println("Replication follower " + socket.getRemoteSocketAddress() + " disconnected: " + e.getMessage());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            open = false;
+            followers.remove(this);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                System.err.println("Error closing replication follower: " + e.getMessage());
+            }
+        }
+    }
+}
\ No newline at end of file
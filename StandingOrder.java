@@ -0,0 +1,125 @@
+package BankingApp;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+public class StandingOrder implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String orderId;
+    private String username;
+    private OrderType orderType;
+    private String accountNumber;
+    private String targetAccount;
+    private BigDecimal amount;
+    private String description;
+    private Duration interval;
+    private LocalDateTime nextExecution;
+    private LocalDateTime scheduledExecution;
+    private LocalDateTime createdAt;
+    private OrderStatus status;
+    private int failedAttempts;
+    private String lastError;
+    private String idempotencyKey;
+
+    public enum OrderType {
+        DEPOSIT, WITHDRAWAL, TRANSFER
+    }
+
+    public enum OrderStatus {
+        ACTIVE, COMPLETED, CANCELLED, FAILED
+    }
+
+    public StandingOrder(String orderId, String username, OrderType orderType, String accountNumber,
+                         String targetAccount, BigDecimal amount, String description,
+                         LocalDateTime firstExecution, Duration interval) {
+        this(orderId, username, orderType, accountNumber, targetAccount, amount, description, 
+             firstExecution, interval, null);
+    }
+
+    public StandingOrder(String orderId, String username, OrderType orderType, String accountNumber,
+                         String targetAccount, BigDecimal amount, String description,
+                         LocalDateTime firstExecution, Duration interval, String idempotencyKey) {
+        this.orderId = orderId;
+        this.username = username;
+        this.orderType = orderType;
+        this.accountNumber = accountNumber;
+        this.targetAccount = targetAccount;
+        this.amount = amount;
+        this.description = DataValidator.sanitizeInput(description);
+        this.nextExecution = firstExecution;
+        this.scheduledExecution = firstExecution;
+        this.interval = interval;
+        this.createdAt = LocalDateTime.now();
+        this.status = OrderStatus.ACTIVE;
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public void recordSuccess(LocalDateTime executedAt) {
+        failedAttempts = 0;
+        lastError = null;
+        if (interval == null) {
+            status = OrderStatus.COMPLETED;
+            return;
+        }
+        advanceOccurrence(executedAt);
+    }
+
+    public void recordFailure(LocalDateTime failedAt, String reason, int maxRetries, Duration retryDelay) {
+        failedAttempts++;
+        lastError = reason;
+        if (failedAttempts <= maxRetries) {
+            nextExecution = failedAt.plus(retryDelay);
+        } else if (interval == null) {
+            status = OrderStatus.FAILED;
+        } else {
+            failedAttempts = 0;
+            advanceOccurrence(failedAt);
+        }
+    }
+
+    // Retries move nextExecution only, so recurrences stay anchored to the scheduled occurrence.
+    // Occurrences missed while the service was down are skipped rather than replayed.
+    private void advanceOccurrence(LocalDateTime after) {
+        LocalDateTime next = (scheduledExecution != null ? scheduledExecution : nextExecution).plus(interval);
+        while (!next.isAfter(after)) {
+            next = next.plus(interval);
+        }
+        scheduledExecution = next;
+        nextExecution = next;
+    }
+
+    public void fail(String reason) {
+        lastError = reason;
+        status = OrderStatus.FAILED;
+    }
+
+    public void cancel() {
+        status = OrderStatus.CANCELLED;
+    }
+
+    public String getOrderId() { return orderId; }
+    public String getUsername() { return username; }
+    public OrderType getOrderType() { return orderType; }
+    public String getAccountNumber() { return accountNumber; }
+    public String getTargetAccount() { return targetAccount; }
+    public BigDecimal getAmount() { return amount; }
+    public String getDescription() { return description; }
+    public Duration getInterval() { return interval; }
+    public LocalDateTime getNextExecution() { return nextExecution; }
+    public LocalDateTime getScheduledExecution() { return scheduledExecution; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public OrderStatus getStatus() { return status; }
+    public int getFailedAttempts() { return failedAttempts; }
+    public String getLastError() { return lastError; }
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public boolean isActive() { return status == OrderStatus.ACTIVE; }
+
+    @Override
+    public String toString() {
+        return String.format("StandingOrder{id='%s', type=%s, account='%s', to='%s', amount=%.2f, next=%s, status=%s}",
+                           orderId, orderType, accountNumber, targetAccount, amount, nextExecution, status);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+package BankingApp;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class StandingOrderScheduler {
+    private static final long TICK_MILLIS = 1000;
+    public static final int MAX_RETRIES = 3;
+    public static final Duration RETRY_DELAY = Duration.ofMinutes(15);
+
+    private final BankingService bankingService;
+    private final HierarchicalTimerWheel<StandingOrder> wheel;
+    private final Map<String, HierarchicalTimerWheel.Timeout<StandingOrder>> pending = new HashMap<>();
+    private ScheduledExecutorService executor;
+
+    public StandingOrderScheduler(BankingService bankingService) {
+        this.bankingService = bankingService;
+        this.wheel = new HierarchicalTimerWheel<>(TICK_MILLIS, System.currentTimeMillis());
+    }
+
+    public synchronized void schedule(StandingOrder order) {
+        cancel(order.getOrderId());
+        if (order.isActive()) {
+            pending.put(order.getOrderId(), wheel.schedule(order, toEpochMillis(order.getNextExecution())));
+        }
+    }
+
+    public synchronized boolean cancel(String orderId) {
+        return wheel.cancel(pending.remove(orderId));
+    }
+
+    public int runDueOrders() {
+        return runDueOrders(LocalDateTime.now());
+    }
+
+    public int runDueOrders(LocalDateTime now) {
+        List<StandingOrder> due = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(toEpochMillis(now), due::add);
+            for (StandingOrder order : due) {
+                pending.remove(order.getOrderId());
+            }
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        List<StandingOrder> rescheduled = bankingService.executeStandingOrders(due, now);
+        for (StandingOrder order : rescheduled) {
+            schedule(order);
+        }
+        return due.size();
+    }
+
+    public synchronized int getPendingCount() {
+        return wheel.size();
+    }
+
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "standing-order-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> {
+            try {
+                runDueOrders();
+            } catch (Exception e) {
+                System.err.println("Error executing standing orders: " + e.getMessage());
+            }
+        }, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
\ No newline at end of file
@@ -14,25 +14,27 @@ public class Transaction implements Serializable {
     private BigDecimal balanceAfter;
     private String description;
     private LocalDateTime timestamp;
+    private String idempotencyKey;
     
     public enum TransactionType {
-        DEPOSIT, WITHDRAWAL, TRANSFER
+        DEPOSIT, WITHDRAWAL, TRANSFER, INTEREST
     }
     
     public Transaction(String transactionId, String accountNumber, TransactionType type, 
                       BigDecimal amount, BigDecimal balanceAfter, String description) {
+        this(transactionId, accountNumber, type, amount, balanceAfter, description, null);
+    }
+    
+    public Transaction(String transactionId, String accountNumber, TransactionType type, 
+                      BigDecimal amount, BigDecimal balanceAfter, String description, String idempotencyKey) {
         this.transactionId = transactionId;
         this.accountNumber = accountNumber;
         this.type = type;
         this.amount = amount;
         this.balanceAfter = balanceAfter;
-        this.description = sanitizeInput(description);
+        this.description = InputSanitizer.stripMarkup(description);
         this.timestamp = LocalDateTime.now();
-    }
-    
-    private String sanitizeInput(String input) {
-        if (input == null) return null;
-        return input.replaceAll("[<>\"']", "");
+        this.idempotencyKey = idempotencyKey;
     }
     
     public String getTransactionId() { return transactionId; }
@@ -42,6 +44,7 @@ public class Transaction implements Serializable {
     public BigDecimal getBalanceAfter() { return balanceAfter; }
     public String getDescription() { return description; }
     public LocalDateTime getTimestamp() { return timestamp; }
+    public String getIdempotencyKey() { return idempotencyKey; }
     
     @Override
     public String toString() {
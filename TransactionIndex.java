@@ -0,0 +1,445 @@
+package BankingApp;
+
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TransactionIndex {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MIN_TAIL_MERGE = 4096;
+    private static final int TAIL_MERGE_DIVISOR = 64;
+    private static final Transaction.TransactionType[] TYPES = Transaction.TransactionType.values();
+
+    // Document ids are positions in the append-only transaction list
+    private final List<Transaction> documents = new ArrayList<>();
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private final PostingList[] typePostings = new PostingList[TYPES.length];
+    private final Map<String, PostingList> termPostings = new HashMap<>();
+
+    // Document ids ordered by amount and by timestamp. Appended documents go into small sorted tails that
+    // are searched alongside, and are merged in only once the tails outgrow a fraction of the main orders.
+    private int[] byAmount = new int[0];
+    private int[] byTimestamp = new int[0];
+    private int[] tailByAmount = new int[INITIAL_CAPACITY];
+    private int[] tailByTimestamp = new int[INITIAL_CAPACITY];
+    private int tailSize;
+
+    public TransactionIndex() {
+        for (int i = 0; i < typePostings.length; i++) {
+            typePostings[i] = new PostingList();
+        }
+    }
+
+    public synchronized void update(List<Transaction> transactions) {
+        int first = documents.size();
+        for (int i = first; i < transactions.size(); i++) {
+            add(transactions.get(i));
+        }
+        int added = documents.size() - first;
+        if (added == 0) {
+            return;
+        }
+
+        if (tailSize + added > Math.max(MIN_TAIL_MERGE, byAmount.length / TAIL_MERGE_DIVISOR)) {
+            // Every document past the main orders is sorted and merged in one pass
+            byAmount = extendOrder(byAmount, amounts);
+            byTimestamp = extendOrder(byTimestamp, timestamps);
+            tailSize = 0;
+            return;
+        }
+        if (tailSize + added > tailByAmount.length) {
+            int capacity = Math.max(tailByAmount.length * 2, tailSize + added);
+            tailByAmount = Arrays.copyOf(tailByAmount, capacity);
+            tailByTimestamp = Arrays.copyOf(tailByTimestamp, capacity);
+        }
+        for (int docId = first; docId < documents.size(); docId++) {
+            insertSorted(tailByAmount, tailSize, docId, amounts);
+            insertSorted(tailByTimestamp, tailSize, docId, timestamps);
+            tailSize++;
+        }
+    }
+
+    private static void insertSorted(int[] order, int size, int docId, long[] keys) {
+        int position = upperBound(order, size, keys, keys[docId]);
+        System.arraycopy(order, position, order, position + 1, size - position);
+        order[position] = docId;
+    }
+
+    public synchronized void clear() {
+        documents.clear();
+        for (int i = 0; i < typePostings.length; i++) {
+            typePostings[i] = new PostingList();
+        }
+        termPostings.clear();
+        byAmount = new int[0];
+        byTimestamp = new int[0];
+        tailSize = 0;
+    }
+
+    public synchronized int size() {
+        return documents.size();
+    }
+
+    public synchronized int getTermCount() {
+        return termPostings.size();
+    }
+
+    public synchronized long getPostingBytes() {
+        long bytes = 0;
+        for (PostingList postings : typePostings) {
+            bytes += postings.length;
+        }
+        for (PostingList postings : termPostings.values()) {
+            bytes += postings.length;
+        }
+        return bytes;
+    }
+
+    private void add(Transaction transaction) {
+        int docId = documents.size();
+        if (docId == amounts.length) {
+            int capacity = amounts.length * 2;
+            types = Arrays.copyOf(types, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+        }
+        documents.add(transaction);
+        types[docId] = (byte) transaction.getType().ordinal();
+        amounts[docId] = transaction.getAmount().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+        timestamps[docId] = toEpochMillis(transaction.getTimestamp());
+
+        typePostings[transaction.getType().ordinal()].add(docId);
+        for (String term : tokenize(transaction.getDescription())) {
+            termPostings.computeIfAbsent(term, key -> new PostingList()).add(docId);
+        }
+    }
+
+    public synchronized List<Transaction> search(TransactionQuery query) {
+        long minAmount = query.getMinAmount() != null
+                ? query.getMinAmount().movePointRight(2).setScale(0, RoundingMode.CEILING).longValue() : Long.MIN_VALUE;
+        long maxAmount = query.getMaxAmount() != null
+                ? query.getMaxAmount().movePointRight(2).setScale(0, RoundingMode.FLOOR).longValue() : Long.MAX_VALUE;
+        long from = query.getFrom() != null ? toEpochMillis(query.getFrom()) : Long.MIN_VALUE;
+        long to = query.getTo() != null ? toEpochMillis(query.getTo()) : Long.MAX_VALUE;
+        int type = query.getType() != null ? query.getType().ordinal() : -1;
+
+        int[] candidates = selectCandidates(query, type, minAmount, maxAmount, from, to);
+        if (candidates == null) {
+            return new ArrayList<>();
+        }
+
+        // The driving predicate produced the candidates; the remaining ones are checked against the columns
+        int matched = 0;
+        for (int docId : candidates) {
+            if ((type < 0 || types[docId] == type)
+                    && amounts[docId] >= minAmount && amounts[docId] <= maxAmount
+                    && timestamps[docId] >= from && timestamps[docId] <= to) {
+                candidates[matched++] = docId;
+            }
+        }
+
+        int limit = query.getLimit() > 0 ? Math.min(query.getLimit(), matched) : matched;
+        int[] ordered = limit < matched ? newest(candidates, matched, limit) : Arrays.copyOf(candidates, matched);
+        sortByKey(ordered, timestamps);
+        List<Transaction> results = new ArrayList<>(limit);
+        for (int i = ordered.length - 1; i >= 0; i--) {
+            results.add(documents.get(ordered[i]));
+        }
+        return results;
+    }
+
+    // Keeps the latest documents in a min-heap on timestamp so a limited search never sorts every match.
+    // Candidates are walked from the end, so a slice already in timestamp order fills the heap once.
+    private int[] newest(int[] docIds, int size, int limit) {
+        int[] heap = Arrays.copyOfRange(docIds, size - limit, size);
+        for (int i = limit / 2 - 1; i >= 0; i--) {
+            siftDown(heap, i);
+        }
+        for (int i = size - limit - 1; i >= 0; i--) {
+            if (timestamps[docIds[i]] > timestamps[heap[0]]) {
+                heap[0] = docIds[i];
+                siftDown(heap, 0);
+            }
+        }
+        return heap;
+    }
+
+    private void siftDown(int[] heap, int index) {
+        int docId = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heap.length) {
+                break;
+            }
+            if (child + 1 < heap.length && timestamps[heap[child + 1]] < timestamps[heap[child]]) {
+                child++;
+            }
+            if (timestamps[heap[child]] >= timestamps[docId]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = docId;
+    }
+
+    private int[] selectCandidates(TransactionQuery query, int type, long minAmount, long maxAmount, long from, long to) {
+        List<String> terms = query.getTerms();
+        if (!terms.isEmpty()) {
+            List<PostingList> lists = new ArrayList<>();
+            for (String term : terms) {
+                PostingList postings = termPostings.get(term);
+                if (postings == null) {
+                    return null;
+                }
+                lists.add(postings);
+            }
+            lists.sort((a, b) -> Integer.compare(a.count, b.count));
+
+            // Intersection starts from the rarest term so every later merge only shrinks the set
+            int[] candidates = lists.get(0).decode();
+            int size = candidates.length;
+            for (int i = 1; i < lists.size() && size > 0; i++) {
+                size = lists.get(i).intersect(candidates, size);
+            }
+            return Arrays.copyOf(candidates, size);
+        }
+
+        // Without terms the most selective of the type list and the two range slices drives the query
+        int best = type >= 0 ? typePostings[type].count : documents.size();
+        int[] amountRange = null;
+        int[] timeRange = null;
+        if (minAmount != Long.MIN_VALUE || maxAmount != Long.MAX_VALUE) {
+            amountRange = rangeOf(byAmount, tailByAmount, amounts, minAmount, maxAmount);
+            best = Math.min(best, rangeSize(amountRange));
+        }
+        if (from != Long.MIN_VALUE || to != Long.MAX_VALUE) {
+            timeRange = rangeOf(byTimestamp, tailByTimestamp, timestamps, from, to);
+            best = Math.min(best, rangeSize(timeRange));
+        }
+
+        if (amountRange != null && rangeSize(amountRange) == best) {
+            return slice(byAmount, tailByAmount, amountRange);
+        }
+        if (timeRange != null && rangeSize(timeRange) == best) {
+            return slice(byTimestamp, tailByTimestamp, timeRange);
+        }
+        if (type >= 0) {
+            return typePostings[type].decode();
+        }
+        int[] all = new int[documents.size()];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        return all;
+    }
+
+    private int[] extendOrder(int[] order, long[] keys) {
+        int indexed = order.length;
+        int total = documents.size();
+        if (indexed == total) {
+            return order;
+        }
+
+        int[] tail = new int[total - indexed];
+        for (int i = 0; i < tail.length; i++) {
+            tail[i] = indexed + i;
+        }
+        sortByKey(tail, keys);
+
+        int[] merged = new int[total];
+        int left = 0;
+        int right = 0;
+        for (int i = 0; i < total; i++) {
+            if (right == tail.length || (left < indexed && keys[order[left]] <= keys[tail[right]])) {
+                merged[i] = order[left++];
+            } else {
+                merged[i] = tail[right++];
+            }
+        }
+        return merged;
+    }
+
+    // Bounds of [min, max] in the main order followed by the bounds in the tail
+    private int[] rangeOf(int[] order, int[] tail, long[] keys, long min, long max) {
+        int lower = lowerBound(order, order.length, keys, min);
+        int tailLower = lowerBound(tail, tailSize, keys, min);
+        return new int[] {
+            lower, Math.max(lower, upperBound(order, order.length, keys, max)),
+            tailLower, Math.max(tailLower, upperBound(tail, tailSize, keys, max))
+        };
+    }
+
+    private static int rangeSize(int[] range) {
+        return range[1] - range[0] + range[3] - range[2];
+    }
+
+    private static int[] slice(int[] order, int[] tail, int[] range) {
+        int[] docIds = new int[rangeSize(range)];
+        System.arraycopy(order, range[0], docIds, 0, range[1] - range[0]);
+        System.arraycopy(tail, range[2], docIds, range[1] - range[0], range[3] - range[2]);
+        return docIds;
+    }
+
+    private static int lowerBound(int[] order, int length, long[] keys, long key) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[order[mid]] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(int[] order, int length, long[] keys, long key) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[order[mid]] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Stable bottom-up merge sort of document ids by a primitive column, avoiding boxed comparators
+    private static void sortByKey(int[] ids, long[] keys) {
+        int[] source = ids;
+        int[] target = new int[ids.length];
+        for (int width = 1; width < ids.length; width *= 2) {
+            for (int start = 0; start < ids.length; start += 2 * width) {
+                int middle = Math.min(start + width, ids.length);
+                int end = Math.min(start + 2 * width, ids.length);
+                int left = start;
+                int right = middle;
+                for (int i = start; i < end; i++) {
+                    if (right == end || (left < middle && keys[source[left]] <= keys[source[right]])) {
+                        target[i] = source[left++];
+                    } else {
+                        target[i] = source[right++];
+                    }
+                }
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != ids) {
+            System.arraycopy(source, 0, ids, 0, ids.length);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                if (i - start >= MIN_TOKEN_LENGTH) {
+                    tokens.add(text.substring(start, i).toLowerCase());
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Ascending document ids stored as varint-encoded gaps
+    private static final class PostingList {
+        private byte[] bytes = new byte[8];
+        private int length;
+        private int count;
+        private int lastDocId = -1;
+
+        void add(int docId) {
+            // A term repeated in one description is posted once
+            if (docId <= lastDocId) {
+                return;
+            }
+            int gap = docId - lastDocId;
+            if (length + 5 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            while ((gap & ~0x7F) != 0) {
+                bytes[length++] = (byte) ((gap & 0x7F) | 0x80);
+                gap >>>= 7;
+            }
+            bytes[length++] = (byte) gap;
+            lastDocId = docId;
+            count++;
+        }
+
+        int[] decode() {
+            int[] docIds = new int[count];
+            int position = 0;
+            int docId = -1;
+            for (int i = 0; i < count; i++) {
+                int gap = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = bytes[position++];
+                    gap |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                docId += gap;
+                docIds[i] = docId;
+            }
+            return docIds;
+        }
+
+        // Keeps the candidates that also appear in this list and returns how many remain
+        int intersect(int[] candidates, int size) {
+            int position = 0;
+            int docId = -1;
+            int remaining = count;
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int candidate = candidates[i];
+                while (docId < candidate && remaining > 0) {
+                    int gap = 0;
+                    int shift = 0;
+                    byte b;
+                    do {
+                        b = bytes[position++];
+                        gap |= (b & 0x7F) << shift;
+                        shift += 7;
+                    } while (b < 0);
+                    docId += gap;
+                    remaining--;
+                }
+                if (docId == candidate) {
+                    candidates[kept++] = candidate;
+                } else if (docId < candidate) {
+                    break;
+                }
+            }
+            return kept;
+        }
+    }
+}
\ No newline at end of file
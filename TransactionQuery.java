@@ -0,0 +1,66 @@
+package BankingApp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class TransactionQuery {
+    private Transaction.TransactionType type;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private final List<String> terms = new ArrayList<>();
+    private int limit = 100;
+
+    public TransactionQuery type(Transaction.TransactionType type) {
+        this.type = type;
+        return this;
+    }
+
+    public TransactionQuery minAmount(BigDecimal minAmount) {
+        this.minAmount = minAmount;
+        return this;
+    }
+
+    public TransactionQuery maxAmount(BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+        return this;
+    }
+
+    public TransactionQuery from(LocalDateTime from) {
+        this.from = from;
+        return this;
+    }
+
+    public TransactionQuery to(LocalDateTime to) {
+        this.to = to;
+        return this;
+    }
+
+    public TransactionQuery containing(String text) {
+        terms.addAll(TransactionIndex.tokenize(text));
+        return this;
+    }
+
+    public TransactionQuery limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public Transaction.TransactionType getType() { return type; }
+    public BigDecimal getMinAmount() { return minAmount; }
+    public BigDecimal getMaxAmount() { return maxAmount; }
+    public LocalDateTime getFrom() { return from; }
+    public LocalDateTime getTo() { return to; }
+    public List<String> getTerms() { return Collections.unmodifiableList(terms); }
+    public int getLimit() { return limit; }
+
+    @Override
+    public String toString() {
+        return String.format("TransactionQuery{type=%s, amount=[%s, %s], time=[%s, %s], terms=%s, limit=%d}",
+                           type, minAmount, maxAmount, from, to, terms, limit);
+    }
+}
\ No newline at end of file
@@ -14,24 +14,20 @@ public class User implements Serializable {
     private String email;
     private LocalDateTime createdAt;
     private boolean isActive;
+    private boolean staff;
     
     public User(String username, String passwordHash, String salt, 
                 String firstName, String lastName, String email) {
-        this.username = sanitizeInput(username);
+        this.username = InputSanitizer.stripMarkup(username);
         this.passwordHash = passwordHash;
         this.salt = salt;
-        this.firstName = sanitizeInput(firstName);
-        this.lastName = sanitizeInput(lastName);
-        this.email = sanitizeInput(email);
+        this.firstName = InputSanitizer.stripMarkup(firstName);
+        this.lastName = InputSanitizer.stripMarkup(lastName);
+        this.email = InputSanitizer.stripMarkup(email);
         this.createdAt = LocalDateTime.now();
         this.isActive = true;
     }
     
-    private String sanitizeInput(String input) {
-        if (input == null) return null;
-        return input.replaceAll("[<>\"']", "");
-    }
-    
     public String getUsername() { return username; }
     public String getPasswordHash() { return passwordHash; }
     public String getSalt() { return salt; }
@@ -40,8 +36,10 @@ public class User implements Serializable {
     public String getEmail() { return email; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public boolean isActive() { return isActive; }
+    public boolean isStaff() { return staff; }
     
     public void setActive(boolean active) { isActive = active; }
+    public void setStaff(boolean staff) { this.staff = staff; }
     
     @Override
     public String toString() {
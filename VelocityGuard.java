@@ -0,0 +1,185 @@
+package BankingApp;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class VelocityGuard {
+    private static final String DEFAULT_RULES_FILE = FileDataManager.DATA_DIR + "/velocity.properties";
+    private static final long RELOAD_CHECK_NANOS = 1_000_000_000L;
+    private static final double HISTORY_WEIGHT = 0.2;
+
+    private final File rulesFile;
+    private final ConcurrentHashMap<String, AccountWindow> windows = new ConcurrentHashMap<>();
+    private volatile VelocityRules rules = VelocityRules.defaults();
+    private volatile long rulesModified;
+    private volatile long nextReloadCheck;
+
+    private final LongAdder checkCount = new LongAdder();
+    private final LongAdder checkNanos = new LongAdder();
+    private final LongAdder deniedCount = new LongAdder();
+    private final LongAdder flaggedCount = new LongAdder();
+
+    public enum Verdict {
+        ALLOW, FLAGGED, MINUTE_LIMIT, HOUR_LIMIT, DAY_LIMIT;
+
+        public boolean isDenied() {
+            return this != ALLOW && this != FLAGGED;
+        }
+    }
+
+    public VelocityGuard() {
+        this(new File(DEFAULT_RULES_FILE));
+    }
+
+    public VelocityGuard(File rulesFile) {
+        this.rulesFile = rulesFile;
+        // nanoTime may be negative, so the first deadline is taken from the clock rather than zero
+        this.nextReloadCheck = System.nanoTime();
+        reloadRules();
+    }
+
+    public Verdict check(String accountNumber, long amountCents, long nowMillis) {
+        long start = System.nanoTime();
+        reloadIfChanged(start);
+
+        Verdict verdict = windowFor(accountNumber).check(rules, amountCents, nowMillis);
+
+        if (verdict.isDenied()) {
+            deniedCount.increment();
+        } else if (verdict == Verdict.FLAGGED) {
+            flaggedCount.increment();
+        }
+        checkCount.increment();
+        checkNanos.add(System.nanoTime() - start);
+        return verdict;
+    }
+
+    public void record(String accountNumber, long amountCents, long nowMillis) {
+        windowFor(accountNumber).record(amountCents, nowMillis);
+    }
+
+    private AccountWindow windowFor(String accountNumber) {
+        AccountWindow window = windows.get(accountNumber);
+        return window != null ? window : windows.computeIfAbsent(accountNumber, key -> new AccountWindow());
+    }
+
+    public boolean reloadRules() {
+        if (!rulesFile.exists()) {
+            return false;
+        }
+        try {
+            long modified = rulesFile.lastModified();
+            rules = VelocityRules.load(rulesFile);
+            rulesModified = modified;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error loading velocity rules from " + rulesFile + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void reloadIfChanged(long nowNanos) {
+        if (nowNanos - nextReloadCheck < 0) {
+            return;
+        }
+        nextReloadCheck = nowNanos + RELOAD_CHECK_NANOS;
+        long modified = rulesFile.lastModified();
+        if (modified != 0 && modified != rulesModified) {
+            reloadRules();
+        }
+    }
+
+    public void reset() {
+        windows.clear();
+    }
+
+    public VelocityRules getRules() { return rules; }
+    public void setRules(VelocityRules rules) { this.rules = rules; }
+    public long getCheckCount() { return checkCount.sum(); }
+    public long getDeniedCount() { return deniedCount.sum(); }
+    public long getFlaggedCount() { return flaggedCount.sum(); }
+
+    public double getAverageCheckNanos() {
+        long count = checkCount.sum();
+        return count == 0 ? 0 : (double) checkNanos.sum() / count;
+    }
+
+    private static final class AccountWindow {
+        private final SlidingWindow minute = new SlidingWindow(60, 1_000L);
+        private final SlidingWindow hour = new SlidingWindow(60, 60_000L);
+        private final SlidingWindow day = new SlidingWindow(24, 3_600_000L);
+        private double averageCents;
+        private long samples;
+
+        synchronized Verdict check(VelocityRules rules, long amountCents, long nowMillis) {
+            minute.advance(nowMillis);
+            hour.advance(nowMillis);
+            day.advance(nowMillis);
+
+            if (minute.count >= rules.getMaxCountPerMinute() || minute.cents + amountCents > rules.getMaxCentsPerMinute()) {
+                return Verdict.MINUTE_LIMIT;
+            }
+            if (hour.count >= rules.getMaxCountPerHour() || hour.cents + amountCents > rules.getMaxCentsPerHour()) {
+                return Verdict.HOUR_LIMIT;
+            }
+            if (day.count >= rules.getMaxCountPerDay() || day.cents + amountCents > rules.getMaxCentsPerDay()) {
+                return Verdict.DAY_LIMIT;
+            }
+            if (samples >= rules.getAnomalyMinHistory() && amountCents > averageCents * rules.getAnomalyMultiplier()) {
+                return Verdict.FLAGGED;
+            }
+            return Verdict.ALLOW;
+        }
+
+        synchronized void record(long amountCents, long nowMillis) {
+            minute.add(amountCents, nowMillis);
+            hour.add(amountCents, nowMillis);
+            day.add(amountCents, nowMillis);
+
+            averageCents = samples == 0 ? amountCents : averageCents + HISTORY_WEIGHT * (amountCents - averageCents);
+            samples++;
+        }
+    }
+
+    private static final class SlidingWindow {
+        private final int[] bucketCounts;
+        private final long[] bucketCents;
+        private final long bucketMillis;
+        private long headBucket;
+        private int count;
+        private long cents;
+
+        SlidingWindow(int buckets, long bucketMillis) {
+            this.bucketCounts = new int[buckets];
+            this.bucketCents = new long[buckets];
+            this.bucketMillis = bucketMillis;
+        }
+
+        void advance(long nowMillis) {
+            long bucket = nowMillis / bucketMillis;
+            if (bucket <= headBucket) {
+                return;
+            }
+            long expired = Math.min(bucket - headBucket, bucketCounts.length);
+            for (long b = bucket - expired + 1; b <= bucket; b++) {
+                int index = (int) (b % bucketCounts.length);
+                count -= bucketCounts[index];
+                cents -= bucketCents[index];
+                bucketCounts[index] = 0;
+                bucketCents[index] = 0;
+            }
+            headBucket = bucket;
+        }
+
+        void add(long amountCents, long nowMillis) {
+            advance(nowMillis);
+            int index = (int) (headBucket % bucketCounts.length);
+            bucketCounts[index]++;
+            bucketCents[index] += amountCents;
+            count++;
+            cents += amountCents;
+        }
+    }
+}
\ No newline at end of file
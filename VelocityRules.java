@@ -0,0 +1,83 @@
+package BankingApp;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Properties;
+
+public class VelocityRules {
+    private final int maxCountPerMinute;
+    private final long maxCentsPerMinute;
+    private final int maxCountPerHour;
+    private final long maxCentsPerHour;
+    private final int maxCountPerDay;
+    private final long maxCentsPerDay;
+    private final double anomalyMultiplier;
+    private final int anomalyMinHistory;
+
+    public VelocityRules(int maxCountPerMinute, long maxCentsPerMinute, int maxCountPerHour, long maxCentsPerHour,
+                         int maxCountPerDay, long maxCentsPerDay, double anomalyMultiplier, int anomalyMinHistory) {
+        this.maxCountPerMinute = maxCountPerMinute;
+        this.maxCentsPerMinute = maxCentsPerMinute;
+        this.maxCountPerHour = maxCountPerHour;
+        this.maxCentsPerHour = maxCentsPerHour;
+        this.maxCountPerDay = maxCountPerDay;
+        this.maxCentsPerDay = maxCentsPerDay;
+        this.anomalyMultiplier = anomalyMultiplier;
+        this.anomalyMinHistory = anomalyMinHistory;
+    }
+
+    public static VelocityRules defaults() {
+        return new VelocityRules(10, 1_000_000, 30, 5_000_000, 100, 10_000_000, 5.0, 5);
+    }
+
+    public static VelocityRules load(File file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        }
+
+        VelocityRules d = defaults();
+        try {
+            return new VelocityRules(
+                    intValue(properties, "velocity.minute.maxCount", d.maxCountPerMinute),
+                    centsValue(properties, "velocity.minute.maxAmount", d.maxCentsPerMinute),
+                    intValue(properties, "velocity.hour.maxCount", d.maxCountPerHour),
+                    centsValue(properties, "velocity.hour.maxAmount", d.maxCentsPerHour),
+                    intValue(properties, "velocity.day.maxCount", d.maxCountPerDay),
+                    centsValue(properties, "velocity.day.maxAmount", d.maxCentsPerDay),
+                    Double.parseDouble(properties.getProperty("anomaly.multiplier", String.valueOf(d.anomalyMultiplier))),
+                    intValue(properties, "anomaly.minHistory", d.anomalyMinHistory));
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IOException("Invalid velocity rule in " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static int intValue(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static long centsValue(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : new BigDecimal(value.trim()).movePointRight(2).longValueExact();
+    }
+
+    public int getMaxCountPerMinute() { return maxCountPerMinute; }
+    public long getMaxCentsPerMinute() { return maxCentsPerMinute; }
+    public int getMaxCountPerHour() { return maxCountPerHour; }
+    public long getMaxCentsPerHour() { return maxCentsPerHour; }
+    public int getMaxCountPerDay() { return maxCountPerDay; }
+    public long getMaxCentsPerDay() { return maxCentsPerDay; }
+    public double getAnomalyMultiplier() { return anomalyMultiplier; }
+    public int getAnomalyMinHistory() { return anomalyMinHistory; }
+
+    @Override
+    public String toString() {
+        return String.format("VelocityRules{minute=%d/%d, hour=%d/%d, day=%d/%d, anomaly=%.1fx after %d}",
+                           maxCountPerMinute, maxCentsPerMinute, maxCountPerHour, maxCentsPerHour,
+                           maxCountPerDay, maxCentsPerDay, anomalyMultiplier, anomalyMinHistory);
+    }
+}
\ No newline at end of file